@@ -9,4 +9,13 @@ public @interface DetectSlowExecution {
 
 	long threshold() default 500; // (1)
 
+	/**
+	 * Whether to sample the stack of the executing thread once {@link #profileAfter()}
+	 * of the threshold has elapsed. Requires
+	 * {@code detect-slow-execution.profile.enabled=true}.
+	 */
+	boolean profile() default false;
+
+	double profileAfter() default 0.5;
+
 }
@@ -1,7 +1,16 @@
 package hajiboot;
 
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -10,27 +19,93 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
 @Component // (1)
 @Aspect // (2)
-public class DetectSlowExecutionAspect {
+public class DetectSlowExecutionAspect implements DisposableBean {
 
 	private final Logger log = LoggerFactory.getLogger(DetectSlowExecutionAspect.class);
 
+	private final Map<Method, MethodExecutionStats> stats = new ConcurrentHashMap<>();
+
+	private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+	private final SlowExecutionProfiler profiler;
+
+	public DetectSlowExecutionAspect(ObjectProvider<SlowExecutionProfiler> profiler) {
+		this.profiler = profiler.getIfAvailable();
+	}
+
 	@Around("execution (@hajiboot.DetectSlowExecution * *.*(..))") // (3)
 	public Object detect(ProceedingJoinPoint pjp) throws Throwable {
 		Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-		DetectSlowExecution detectSlowExecution = AnnotationUtils.getAnnotation(method, DetectSlowExecution.class); // (4)
-		long begin = System.currentTimeMillis();
-		Object result = pjp.proceed(); // (5)
-		long elapsed = System.currentTimeMillis() - begin;
-		if (elapsed >= detectSlowExecution.threshold()) { // (6)
-			Object[] args = pjp.getArgs(); // (7)
-			log.warn("Detect slow execution elapsed={}ms, method={}, args={}", elapsed, method, Arrays.toString(args));
+		MethodExecutionStats stats = this.stats.computeIfAbsent(method, this::register); // (4)
+		SlowExecutionProfiler.Session session = (this.profiler != null && stats.profileDelayNanos() >= 0)
+				? this.profiler.start(method, Thread.currentThread(), stats.profileDelayNanos()) : null;
+		long begin = System.nanoTime();
+		try {
+			return pjp.proceed(); // (5)
+		}
+		finally {
+			long elapsed = System.nanoTime() - begin;
+			boolean slow = stats.record(elapsed);
+			Path profile = (session != null) ? session.stop(slow) : null;
+			if (slow && log.isWarnEnabled()) { // (6)
+				Object[] args = pjp.getArgs(); // (7)
+				if (profile != null) {
+					log.warn("Detect slow execution elapsed={}ms, method={}, args={}, profile={}",
+							TimeUnit.NANOSECONDS.toMillis(elapsed), method, Arrays.toString(args), profile);
+				}
+				else {
+					log.warn("Detect slow execution elapsed={}ms, method={}, args={}",
+							TimeUnit.NANOSECONDS.toMillis(elapsed), method, Arrays.toString(args));
+				}
+			}
+		}
+	}
+
+	public MethodExecutionStats stats(Method method) {
+		return this.stats.get(method);
+	}
+
+	private MethodExecutionStats register(Method method) {
+		DetectSlowExecution detectSlowExecution = AnnotationUtils.getAnnotation(method, DetectSlowExecution.class);
+		MethodExecutionStats stats = new MethodExecutionStats(method, detectSlowExecution);
+		try {
+			ObjectName name = objectName(method);
+			if (this.mBeanServer.isRegistered(name)) {
+				this.mBeanServer.unregisterMBean(name);
+			}
+			this.mBeanServer.registerMBean(stats, name);
 		}
-		return result;
+		catch (JMException e) {
+			log.warn("Failed to register execution stats for {}", method, e);
+		}
+		return stats;
+	}
+
+	@Override
+	public void destroy() {
+		for (Method method : this.stats.keySet()) {
+			try {
+				ObjectName name = objectName(method);
+				if (this.mBeanServer.isRegistered(name)) {
+					this.mBeanServer.unregisterMBean(name);
+				}
+			}
+			catch (JMException e) {
+				log.debug("Failed to unregister execution stats for {}", method, e);
+			}
+		}
+	}
+
+	static ObjectName objectName(Method method) throws JMException {
+		return new ObjectName("hajiboot:type=DetectSlowExecution,class=" + method.getDeclaringClass().getName()
+				+ ",method=" + ObjectName.quote(method.toGenericString()));
 	}
 
-}
\ No newline at end of file
+}
@@ -17,7 +17,7 @@ public class MarkdownPrinter {
 		this.renderer = renderer;
 	}
 
-	@DetectSlowExecution(threshold = 1000) // (1)
+	@DetectSlowExecution(threshold = 1000, profile = true) // (1)
 	public void print(InputStream stream) {
 		System.out.print("Input markdown: ");
 		try {
@@ -0,0 +1,94 @@
+package hajiboot;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MethodExecutionStats implements MethodExecutionStatsMXBean {
+
+	private final Method method;
+
+	private final long thresholdNanos;
+
+	private final long profileDelayNanos;
+
+	private final ExecutionHistogram histogram = new ExecutionHistogram();
+
+	private final LongAdder slowCount = new LongAdder();
+
+	public MethodExecutionStats(Method method, DetectSlowExecution detectSlowExecution) {
+		this.method = method;
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(detectSlowExecution.threshold());
+		this.profileDelayNanos = detectSlowExecution.profile()
+				? (long) (this.thresholdNanos * detectSlowExecution.profileAfter()) : -1;
+	}
+
+	/**
+	 * @return whether the execution exceeded the threshold
+	 */
+	public boolean record(long elapsedNanos) {
+		this.histogram.record(elapsedNanos);
+		if (elapsedNanos >= this.thresholdNanos) {
+			this.slowCount.increment();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the nanoseconds after which to start sampling, or {@code -1} when the
+	 * method is not profiled
+	 */
+	public long profileDelayNanos() {
+		return this.profileDelayNanos;
+	}
+
+	public ExecutionHistogram histogram() {
+		return this.histogram;
+	}
+
+	@Override
+	public String getMethod() {
+		return this.method.toString();
+	}
+
+	@Override
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.thresholdNanos);
+	}
+
+	@Override
+	public long getCount() {
+		return this.histogram.count();
+	}
+
+	@Override
+	public long getSlowCount() {
+		return this.slowCount.sum();
+	}
+
+	@Override
+	public double getP50Millis() {
+		return toMillis(this.histogram.percentile(50));
+	}
+
+	@Override
+	public double getP90Millis() {
+		return toMillis(this.histogram.percentile(90));
+	}
+
+	@Override
+	public double getP99Millis() {
+		return toMillis(this.histogram.percentile(99));
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return toMillis(this.histogram.max());
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+}
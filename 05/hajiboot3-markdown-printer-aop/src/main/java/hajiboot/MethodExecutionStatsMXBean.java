@@ -0,0 +1,21 @@
+package hajiboot;
+
+public interface MethodExecutionStatsMXBean {
+
+	String getMethod();
+
+	long getThresholdMillis();
+
+	long getCount();
+
+	long getSlowCount();
+
+	double getP50Millis();
+
+	double getP90Millis();
+
+	double getP99Millis();
+
+	double getMaxMillis();
+
+}
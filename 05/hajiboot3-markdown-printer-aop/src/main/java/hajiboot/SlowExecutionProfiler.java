@@ -0,0 +1,131 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Samples the stack of a thread executing a {@link DetectSlowExecution} method and, when
+ * the execution turns out to be slow, writes the samples in collapsed-stack format
+ * ({@code frame;frame;frame count}) that flame graph tools can read.
+ */
+@Component
+@ConditionalOnProperty(prefix = "detect-slow-execution.profile", name = "enabled", havingValue = "true")
+public class SlowExecutionProfiler implements DisposableBean {
+
+	private final Logger log = LoggerFactory.getLogger(SlowExecutionProfiler.class);
+
+	private final Path directory;
+
+	private final Duration interval;
+
+	private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "slow-execution-profiler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public SlowExecutionProfiler(@Value("${detect-slow-execution.profile.directory:slow-execution}") Path directory,
+			@Value("${detect-slow-execution.profile.interval:10ms}") Duration interval) {
+		this.directory = directory;
+		this.interval = interval;
+	}
+
+	public Session start(Method method, Thread thread, long delayNanos) {
+		return new Session(method, thread, delayNanos);
+	}
+
+	@Override
+	public void destroy() {
+		this.sampler.shutdownNow();
+	}
+
+	public class Session {
+
+		private final Method method;
+
+		private final Thread thread;
+
+		private final Map<String, Integer> stacks = new HashMap<>();
+
+		private final ScheduledFuture<?> future;
+
+		Session(Method method, Thread thread, long delayNanos) {
+			this.method = method;
+			this.thread = thread;
+			this.future = sampler.scheduleAtFixedRate(this::sample, delayNanos, interval.toNanos(),
+					TimeUnit.NANOSECONDS);
+		}
+
+		private void sample() {
+			StackTraceElement[] stackTrace = this.thread.getStackTrace();
+			if (stackTrace.length == 0) {
+				return;
+			}
+			String stack = IntStream.iterate(stackTrace.length - 1, i -> i >= 0, i -> i - 1)
+				.mapToObj(i -> stackTrace[i].getClassName() + "." + stackTrace[i].getMethodName())
+				.collect(Collectors.joining(";"));
+			synchronized (this.stacks) {
+				this.stacks.merge(stack, 1, Integer::sum);
+			}
+		}
+
+		/**
+		 * Stops sampling and writes the collapsed stacks if the execution was slow. Never
+		 * throws, since it runs after the profiled method has returned or thrown.
+		 * @return the written file or {@code null}
+		 */
+		public Path stop(boolean slow) {
+			this.future.cancel(false);
+			if (!slow) {
+				return null;
+			}
+			Map<String, Integer> stacks;
+			synchronized (this.stacks) {
+				stacks = Map.copyOf(this.stacks);
+			}
+			if (stacks.isEmpty()) {
+				return null;
+			}
+			Path file = directory.resolve("%s.%s-%d.collapsed".formatted(this.method.getDeclaringClass().getSimpleName(),
+					this.method.getName(), System.currentTimeMillis()));
+			try {
+				Files.createDirectories(directory);
+				try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+					for (Map.Entry<String, Integer> entry : stacks.entrySet()) {
+						writer.write(entry.getKey() + " " + entry.getValue() + "\n");
+					}
+				}
+			}
+			catch (IOException e) {
+				log.warn("Failed to write stack samples of {} to {}", this.method, file, e);
+				return null;
+			}
+			log.info("Wrote {} stack samples of {} to {}", stacks.values().stream().mapToInt(i -> i).sum(),
+					this.method, file);
+			return file;
+		}
+
+	}
+
+}
@@ -1,10 +1,13 @@
 package hajiboot;
 
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
 import java.util.function.Function;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.system.CapturedOutput;
@@ -21,6 +24,9 @@ public class DetectSlowExecutionAspectTest {
 	@Autowired // (2)
 	private Sleep sleep;
 
+	@Autowired
+	private DetectSlowExecutionAspect aspect;
+
 	@Test
 	void detectSlow(CapturedOutput capture) {
 		sleep.apply(1000L); // (3)
@@ -37,13 +43,26 @@ public class DetectSlowExecutionAspectTest {
 		assertThat(log).doesNotContain("Detect slow execution elapsed="); // (5)
 	}
 
+	@Test
+	void recordHistogram() throws Exception {
+		sleep.apply(10L);
+		sleep.apply(20L);
+		Method method = Sleep.class.getMethod("apply", Long.class);
+		MethodExecutionStats stats = aspect.stats(method);
+		assertThat(stats.getCount()).isGreaterThanOrEqualTo(2);
+		assertThat(stats.getThresholdMillis()).isEqualTo(800);
+		assertThat(stats.getMaxMillis()).isGreaterThanOrEqualTo(20);
+		assertThat(ManagementFactory.getPlatformMBeanServer()
+			.getAttribute(DetectSlowExecutionAspect.objectName(method), "Count")).isEqualTo(stats.getCount());
+	}
+
 	@TestConfiguration // (6)
 	@EnableAspectJAutoProxy(proxyTargetClass = true) // (7)
 	public static class Config {
 
 		@Bean
-		public DetectSlowExecutionAspect detectSlowExecutionAspectForTest() {
-			return new DetectSlowExecutionAspect();
+		public DetectSlowExecutionAspect detectSlowExecutionAspectForTest(ObjectProvider<SlowExecutionProfiler> profiler) {
+			return new DetectSlowExecutionAspect(profiler);
 		}
 
 		@Bean
@@ -0,0 +1,47 @@
+package hajiboot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ExecutionHistogramTest {
+
+	@Test
+	void percentiles() {
+		ExecutionHistogram histogram = new ExecutionHistogram();
+		IntStream.rangeClosed(1, 1000).forEach(i -> histogram.record(TimeUnit.MILLISECONDS.toNanos(i)));
+		assertThat(histogram.count()).isEqualTo(1000);
+		assertThat(histogram.max()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1000));
+		assertThat((double) histogram.percentile(50)).isCloseTo(500e6, within(500e6 / 16));
+		assertThat((double) histogram.percentile(90)).isCloseTo(900e6, within(900e6 / 16));
+		assertThat((double) histogram.percentile(99)).isCloseTo(990e6, within(990e6 / 16));
+		assertThat(histogram.percentile(100)).isEqualTo(histogram.max());
+	}
+
+	@Test
+	void empty() {
+		assertThat(new ExecutionHistogram().percentile(99)).isZero();
+	}
+
+	@Test
+	void bucketsCoverValues() {
+		for (long value : new long[] { 0, 1, 15, 16, 17, 31, 32, 1_000_000, Long.MAX_VALUE }) {
+			int index = ExecutionHistogram.index(value);
+			assertThat(ExecutionHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+			assertThat(ExecutionHistogram.upperBound(index) - value).isLessThanOrEqualTo(Math.max(value / 16, 0));
+		}
+	}
+
+	@Test
+	void concurrentRecords() {
+		ExecutionHistogram histogram = new ExecutionHistogram();
+		IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i));
+		assertThat(histogram.count()).isEqualTo(100_000);
+		assertThat(histogram.max()).isEqualTo(99_999);
+	}
+
+}
@@ -0,0 +1,64 @@
+package hajiboot;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowExecutionProfilerTest {
+
+	@TempDir
+	Path dir;
+
+	SlowExecutionProfiler profiler;
+
+	@AfterEach
+	void destroy() {
+		this.profiler.destroy();
+	}
+
+	@Test
+	void writeCollapsedStacks() throws Exception {
+		this.profiler = new SlowExecutionProfiler(this.dir, Duration.ofMillis(5));
+		Method method = SlowExecutionProfilerTest.class.getDeclaredMethod("writeCollapsedStacks");
+		SlowExecutionProfiler.Session session = this.profiler.start(method, Thread.currentThread(),
+				TimeUnit.MILLISECONDS.toNanos(50));
+		Thread.sleep(300);
+		Path file = session.stop(true);
+
+		assertThat(file).exists().hasParent(this.dir);
+		List<String> lines = Files.readAllLines(file);
+		assertThat(lines).isNotEmpty()
+			.anySatisfy(line -> assertThat(line).contains(SlowExecutionProfilerTest.class.getName() + ".writeCollapsedStacks;")
+				.containsPattern("java\\.lang\\.Thread\\.sleep.* \\d+$"));
+	}
+
+	@Test
+	void discardFastExecution() throws Exception {
+		this.profiler = new SlowExecutionProfiler(this.dir, Duration.ofMillis(5));
+		Method method = SlowExecutionProfilerTest.class.getDeclaredMethod("discardFastExecution");
+		SlowExecutionProfiler.Session session = this.profiler.start(method, Thread.currentThread(), 0);
+		Thread.sleep(50);
+		assertThat(session.stop(false)).isNull();
+		assertThat(this.dir).isEmptyDirectory();
+	}
+
+	@Test
+	void ignoreWriteFailure() throws Exception {
+		Path notADirectory = Files.createFile(this.dir.resolve("file"));
+		this.profiler = new SlowExecutionProfiler(notADirectory, Duration.ofMillis(5));
+		Method method = SlowExecutionProfilerTest.class.getDeclaredMethod("ignoreWriteFailure");
+		SlowExecutionProfiler.Session session = this.profiler.start(method, Thread.currentThread(), 0);
+		Thread.sleep(50);
+		assertThat(session.stop(true)).isNull();
+	}
+
+}
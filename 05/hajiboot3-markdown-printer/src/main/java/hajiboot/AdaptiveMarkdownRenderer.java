@@ -0,0 +1,218 @@
+package hajiboot;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes to the {@link Online} renderer while it is healthy and to the {@link Offline}
+ * renderer otherwise. The online renderer is considered unhealthy (circuit open) when,
+ * over the last {@code windowSize} calls, the error rate or the p99 latency exceeds its
+ * threshold. After {@code openDuration} a single probe call decides whether to close the
+ * circuit again. When {@code hedgeDelay} is set, an online call that has not finished by
+ * then is raced against the offline renderer. An online call that has not finished after
+ * {@code timeout} counts as failed.
+ */
+@Component
+@Adaptive
+public class AdaptiveMarkdownRenderer implements MarkdownRenderer {
+
+	private final Logger log = LoggerFactory.getLogger(AdaptiveMarkdownRenderer.class);
+
+	private final MarkdownRenderer online;
+
+	private final MarkdownRenderer offline;
+
+	private final AdaptiveRendererProperties props;
+
+	private final RollingWindow window;
+
+	private final Timer onlineTimer;
+
+	private final Timer offlineTimer;
+
+	private final MeterRegistry meterRegistry;
+
+	private volatile long openedAt = -1;
+
+	private volatile boolean probing = false;
+
+	public AdaptiveMarkdownRenderer(@Online MarkdownRenderer online, @Offline MarkdownRenderer offline,
+			AdaptiveRendererProperties props, MeterRegistry meterRegistry) {
+		this.online = online;
+		this.offline = offline;
+		this.props = props;
+		this.window = new RollingWindow(props.windowSize());
+		this.meterRegistry = meterRegistry;
+		this.onlineTimer = Timer.builder("markdown.render")
+			.tag("backend", "online")
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+		this.offlineTimer = Timer.builder("markdown.render")
+			.tag("backend", "offline")
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+		meterRegistry.gauge("markdown.circuit.open", this, renderer -> renderer.isOpen() ? 1 : 0);
+	}
+
+	@Override
+	public String render(String markdown) {
+		if (!allowOnline()) {
+			route("offline");
+			return renderOffline(markdown);
+		}
+		long begin = System.nanoTime();
+		CompletableFuture<String> future;
+		try {
+			future = this.online.renderAsync(markdown);
+		}
+		catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		// a hung call would otherwise block the caller and, as a probe, keep the circuit open forever
+		future = future.orTimeout(this.props.timeout().toNanos(), TimeUnit.NANOSECONDS);
+		try {
+			String html = (this.props.hedgeDelay() == null) ? future.get()
+					: future.get(this.props.hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+			recordOnline(System.nanoTime() - begin, false);
+			route("online");
+			return html;
+		}
+		catch (TimeoutException e) {
+			route("hedged");
+			return hedge(markdown, future, begin);
+		}
+		catch (ExecutionException e) {
+			recordOnline(System.nanoTime() - begin, true);
+			log.warn("Fall back to offline renderer: {}", e.getCause().toString());
+			route("fallback");
+			return renderOffline(markdown);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String hedge(String markdown, CompletableFuture<String> online, long begin) {
+		online.whenComplete((html, e) -> recordOnline(System.nanoTime() - begin, e != null));
+		CompletableFuture<String> offline = CompletableFuture.supplyAsync(() -> renderOffline(markdown));
+		return (String) CompletableFuture.anyOf(online.exceptionallyCompose(e -> offline), offline).join();
+	}
+
+	private String renderOffline(String markdown) {
+		return this.offlineTimer.record(() -> this.offline.render(markdown));
+	}
+
+	private void route(String decision) {
+		Counter.builder("markdown.route").tag("decision", decision).register(this.meterRegistry).increment();
+	}
+
+	boolean isOpen() {
+		return this.openedAt >= 0;
+	}
+
+	private boolean allowOnline() {
+		long openedAt = this.openedAt;
+		if (openedAt < 0) {
+			return true;
+		}
+		if (System.nanoTime() - openedAt < this.props.openDuration().toNanos()) {
+			return false;
+		}
+		synchronized (this) {
+			if (this.probing) {
+				return false;
+			}
+			this.probing = true; // half-open: let a single call through
+			return true;
+		}
+	}
+
+	private void recordOnline(long elapsed, boolean error) {
+		this.onlineTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		synchronized (this) {
+			if (this.probing) {
+				this.probing = false;
+				if (error || elapsed > this.props.latencyThreshold().toNanos()) {
+					this.openedAt = System.nanoTime();
+				}
+				else {
+					this.openedAt = -1;
+					this.window.reset();
+					log.info("Circuit closed");
+				}
+				return;
+			}
+			this.window.record(elapsed, error);
+			if (this.openedAt < 0 && this.window.count() >= this.props.minimumCalls()
+					&& (this.window.errorRate() > this.props.errorRateThreshold()
+							|| this.window.percentile(0.99) > this.props.latencyThreshold().toNanos())) {
+				this.openedAt = System.nanoTime();
+				log.warn("Circuit opened: errorRate={}, p99={}ms", this.window.errorRate(),
+						TimeUnit.NANOSECONDS.toMillis(this.window.percentile(0.99)));
+			}
+		}
+	}
+
+	static class RollingWindow {
+
+		private final long[] latencies;
+
+		private final boolean[] errors;
+
+		private int next;
+
+		private int count;
+
+		RollingWindow(int size) {
+			this.latencies = new long[size];
+			this.errors = new boolean[size];
+		}
+
+		void record(long latency, boolean error) {
+			this.latencies[this.next] = latency;
+			this.errors[this.next] = error;
+			this.next = (this.next + 1) % this.latencies.length;
+			this.count = Math.min(this.count + 1, this.latencies.length);
+		}
+
+		int count() {
+			return this.count;
+		}
+
+		double errorRate() {
+			int errors = 0;
+			for (int i = 0; i < this.count; i++) {
+				errors += this.errors[i] ? 1 : 0;
+			}
+			return (this.count == 0) ? 0 : (double) errors / this.count;
+		}
+
+		long percentile(double percentile) {
+			if (this.count == 0) {
+				return 0;
+			}
+			long[] sorted = Arrays.copyOf(this.latencies, this.count);
+			Arrays.sort(sorted);
+			return sorted[Math.max((int) Math.ceil(percentile * this.count) - 1, 0)];
+		}
+
+		void reset() {
+			this.next = 0;
+			this.count = 0;
+		}
+
+	}
+
+}
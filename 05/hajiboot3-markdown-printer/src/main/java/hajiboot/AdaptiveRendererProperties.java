@@ -0,0 +1,13 @@
+package hajiboot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "markdown.adaptive")
+public record AdaptiveRendererProperties(@DefaultValue("2s") Duration latencyThreshold,
+		@DefaultValue("0.5") double errorRateThreshold, @DefaultValue("100") int windowSize,
+		@DefaultValue("10") int minimumCalls, @DefaultValue("30s") Duration openDuration,
+		Duration hedgeDelay /* null disables hedging */, @DefaultValue("10s") Duration timeout) {
+}
@@ -0,0 +1,236 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders every {@code .md} file under a directory (or matching a glob) to a sibling
+ * {@code .html} file. Files whose mtime, or failing that content hash, matches the
+ * previous run recorded in {@value #MANIFEST} are skipped.
+ */
+@Component
+public class BatchMarkdownPrinter {
+
+	static final String MANIFEST = ".markdown-batch.properties";
+
+	private static final Pattern GLOB_CHARS = Pattern.compile("[*?\\[{]");
+
+	private static final long SKIPPED = -1;
+
+	private final MarkdownRenderer renderer;
+
+	public BatchMarkdownPrinter(@Offline MarkdownRenderer renderer) {
+		// each file is rendered at most once per run and the manifest already skips unchanged
+		// ones, so caching would only hash every file and evict everything else
+		this.renderer = (renderer instanceof CachingMarkdownRenderer caching) ? caching.getDelegate() : renderer;
+	}
+
+	/**
+	 * @param value the {@code --parallelism} option, or {@code null} for the number of
+	 * processors
+	 * @throws IllegalArgumentException if the value is not a positive integer
+	 */
+	static int parallelism(String value) {
+		if (value == null) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		try {
+			int parallelism = Integer.parseInt(value.strip());
+			if (parallelism >= 1) {
+				return parallelism;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new IllegalArgumentException("--parallelism must be a positive integer: " + value);
+	}
+
+	public Summary print(String pathOrGlob, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+		}
+		Path root = root(pathOrGlob);
+		PathMatcher matcher = matcher(pathOrGlob);
+		Path manifestFile = root.resolve(MANIFEST);
+		Map<String, String> manifest = loadManifest(manifestFile);
+		long begin = System.nanoTime();
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(root)) {
+			files = stream.filter(Files::isRegularFile).filter(matcher::matches).toList();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		List<Future<long[]>> futures = new ArrayList<>(files.size());
+		try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+			for (Path file : files) {
+				futures.add(executor.submit(() -> render(root, file, manifest)));
+			}
+		}
+		long[] latencies = new long[files.size()];
+		int rendered = 0;
+		long bytes = 0;
+		for (Future<long[]> future : futures) {
+			long[] result = get(future);
+			if (result[0] != SKIPPED) {
+				latencies[rendered++] = result[0];
+				bytes += result[1];
+			}
+		}
+		saveManifest(manifestFile, manifest);
+		return Summary.of(rendered, files.size() - rendered, bytes, Duration.ofNanos(System.nanoTime() - begin),
+				Arrays.copyOf(latencies, rendered));
+	}
+
+	/**
+	 * @return {@code [latency in nanos, bytes]} or {@code [-1, 0]} when skipped
+	 */
+	long[] render(Path root, Path file, Map<String, String> manifest) throws IOException {
+		String key = root.relativize(file).toString();
+		Path html = file.resolveSibling(file.getFileName().toString().replaceFirst("\\.md$", "") + ".html");
+		long mtime = Files.getLastModifiedTime(file).toMillis();
+		String[] recorded = manifest.getOrDefault(key, ",").split(",", 2);
+		boolean exists = Files.exists(html);
+		if (exists && recorded[0].equals(Long.toString(mtime))) {
+			return new long[] { SKIPPED, 0 };
+		}
+		byte[] markdown = Files.readAllBytes(file);
+		String hash = sha256(markdown);
+		manifest.put(key, mtime + "," + hash);
+		if (exists && recorded[1].equals(hash)) {
+			return new long[] { SKIPPED, 0 };
+		}
+		long begin = System.nanoTime();
+		Files.writeString(html, this.renderer.render(new String(markdown, StandardCharsets.UTF_8)));
+		return new long[] { System.nanoTime() - begin, markdown.length };
+	}
+
+	static Path root(String pathOrGlob) {
+		Matcher matcher = GLOB_CHARS.matcher(pathOrGlob);
+		if (!matcher.find()) {
+			return Path.of(pathOrGlob);
+		}
+		String prefix = pathOrGlob.substring(0, matcher.start());
+		int slash = prefix.lastIndexOf('/');
+		return Path.of((slash < 0) ? "" : prefix.substring(0, slash + 1));
+	}
+
+	static PathMatcher matcher(String pathOrGlob) {
+		if (!GLOB_CHARS.matcher(pathOrGlob).find()) {
+			return path -> path.getFileName().toString().endsWith(".md");
+		}
+		return FileSystems.getDefault().getPathMatcher("glob:" + pathOrGlob);
+	}
+
+	static Map<String, String> loadManifest(Path manifestFile) {
+		Map<String, String> manifest = new ConcurrentHashMap<>();
+		if (Files.exists(manifestFile)) {
+			Properties properties = new Properties();
+			try (InputStream stream = Files.newInputStream(manifestFile)) {
+				properties.load(stream);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			properties.forEach((key, value) -> manifest.put((String) key, (String) value));
+		}
+		return manifest;
+	}
+
+	static void saveManifest(Path manifestFile, Map<String, String> manifest) {
+		Properties properties = new Properties();
+		properties.putAll(manifest);
+		try (OutputStream stream = Files.newOutputStream(manifestFile)) {
+			properties.store(stream, "path=mtime,sha256");
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static long[] get(Future<long[]> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	public record Summary(int rendered, int skipped, long bytes, Duration elapsed, Duration p50, Duration p99) {
+
+		static Summary of(int rendered, int skipped, long bytes, Duration elapsed, long[] latencies) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			return new Summary(rendered, skipped, bytes, elapsed, percentile(sorted, 50), percentile(sorted, 99));
+		}
+
+		private static Duration percentile(long[] sorted, double percentile) {
+			if (sorted.length == 0) {
+				return Duration.ZERO;
+			}
+			int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+			return Duration.ofNanos(sorted[Math.max(index, 0)]);
+		}
+
+		public double filesPerSecond() {
+			return this.rendered / (this.elapsed.toNanos() / 1e9);
+		}
+
+		public double megabytesPerSecond() {
+			return this.bytes / 1024.0 / 1024.0 / (this.elapsed.toNanos() / 1e9);
+		}
+
+		@Override
+		public String toString() {
+			return "rendered=%d, skipped=%d, elapsed=%dms, files/s=%.1f, MB/s=%.2f, p50=%.3fms, p99=%.3fms".formatted(
+					this.rendered, this.skipped, this.elapsed.toMillis(), filesPerSecond(), megabytesPerSecond(),
+					this.p50.toNanos() / 1e6, this.p99.toNanos() / 1e6);
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+package hajiboot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+public class CachingMarkdownRenderer implements MarkdownRenderer {
+
+	private final MarkdownRenderer delegate;
+
+	private final Cache<String, String> cache;
+
+	@Nullable
+	private final DiskRenderCache diskCache;
+
+	private final String rendererId;
+
+	public CachingMarkdownRenderer(MarkdownRenderer delegate, MarkdownCacheProperties props) {
+		this(delegate, props, null);
+	}
+
+	public CachingMarkdownRenderer(MarkdownRenderer delegate, MarkdownCacheProperties props,
+			@Nullable DiskRenderCache diskCache) {
+		this.delegate = delegate;
+		this.diskCache = diskCache;
+		this.rendererId = ClassUtils.getUserClass(delegate).getName();
+		Caffeine<Object, Object> builder = Caffeine.newBuilder() // W-TinyLFU eviction
+			.maximumSize(props.maximumSize())
+			.recordStats();
+		if (props.expireAfterWrite() != null) {
+			builder.expireAfterWrite(props.expireAfterWrite());
+		}
+		this.cache = builder.build();
+	}
+
+	@Override
+	public String render(String markdown) {
+		return this.cache.get(digest(markdown), key -> {
+			if (this.diskCache == null) {
+				return this.delegate.render(markdown);
+			}
+			return this.diskCache.get(this.rendererId, markdown).orElseGet(() -> {
+				String html = this.delegate.render(markdown);
+				this.diskCache.put(this.rendererId, markdown, html);
+				return html;
+			});
+		});
+	}
+
+	@Override
+	public CompletableFuture<String> renderAsync(String markdown) {
+		String key = digest(markdown);
+		String cached = this.cache.getIfPresent(key);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		Optional<String> stored = (this.diskCache == null) ? Optional.empty()
+				: this.diskCache.get(this.rendererId, markdown);
+		if (stored.isPresent()) {
+			this.cache.put(key, stored.get());
+			return CompletableFuture.completedFuture(stored.get());
+		}
+		return this.delegate.renderAsync(markdown).thenApply(html -> {
+			this.cache.put(key, html);
+			if (this.diskCache != null) {
+				this.diskCache.put(this.rendererId, markdown, html);
+			}
+			return html;
+		});
+	}
+
+	public CacheStats stats() {
+		return this.cache.stats();
+	}
+
+	/**
+	 * Publishes hit, miss and eviction metrics of the in-memory cache as
+	 * {@code cache.*} meters tagged with {@code cache=cacheName}.
+	 */
+	public void bindTo(MeterRegistry meterRegistry, String cacheName) {
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, cacheName);
+	}
+
+	public MarkdownRenderer getDelegate() {
+		return this.delegate;
+	}
+
+	static String digest(String markdown) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(messageDigest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package hajiboot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CachingMarkdownRendererPostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<MarkdownCacheProperties> props;
+
+	private final ObjectProvider<DiskRenderCache> diskCache;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public CachingMarkdownRendererPostProcessor(ObjectProvider<MarkdownCacheProperties> props,
+			ObjectProvider<DiskRenderCache> diskCache, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.props = props;
+		this.diskCache = diskCache;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof MarkdownRenderer renderer && !(bean instanceof CachingMarkdownRenderer)
+				&& !(bean instanceof AdaptiveMarkdownRenderer) /* routes to cached renderers */) {
+			MarkdownCacheProperties props = this.props.getObject();
+			if (props.enabled()) {
+				CachingMarkdownRenderer cachingRenderer = new CachingMarkdownRenderer(renderer, props,
+						this.diskCache.getIfAvailable());
+				this.meterRegistry.ifAvailable(meterRegistry -> cachingRenderer.bindTo(meterRegistry, beanName));
+				return cachingRenderer;
+			}
+		}
+		return bean;
+	}
+
+}
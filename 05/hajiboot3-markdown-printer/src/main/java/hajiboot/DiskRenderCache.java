@@ -0,0 +1,213 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only segment file of rendered HTML. Each record is laid out as
+ * {@code [32 bytes SHA-256 key][int length][length bytes UTF-8 html]}. The index
+ * (key to record offset) is kept in memory and rebuilt by scanning the memory-mapped
+ * segment on startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "markdown.cache.disk", name = "enabled", havingValue = "true")
+public class DiskRenderCache implements DisposableBean {
+
+	private static final int KEY_LENGTH = 32;
+
+	private static final int HEADER_LENGTH = KEY_LENGTH + Integer.BYTES;
+
+	private final Logger log = LoggerFactory.getLogger(DiskRenderCache.class);
+
+	private final Path segment;
+
+	private final long maxSize;
+
+	private final Map<ByteBuffer, Long> index = new HashMap<>();
+
+	private FileChannel channel;
+
+	private MappedByteBuffer mapped;
+
+	private long size;
+
+	public DiskRenderCache(MarkdownCacheProperties props) {
+		this(props.disk().directory().resolve("render-cache.seg"), props.disk().maxSize().toBytes());
+	}
+
+	public DiskRenderCache(Path segment, long maxSize) {
+		this.segment = segment;
+		this.maxSize = maxSize;
+		try {
+			Files.createDirectories(segment.toAbsolutePath().getParent());
+			open();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public synchronized Optional<String> get(String rendererId, String markdown) {
+		Long offset = this.index.get(key(rendererId, markdown));
+		if (offset == null) {
+			return Optional.empty();
+		}
+		try {
+			ByteBuffer buffer = mapped(offset);
+			int length = buffer.getInt(Math.toIntExact(offset + KEY_LENGTH));
+			byte[] html = new byte[length];
+			buffer.get(Math.toIntExact(offset + HEADER_LENGTH), html);
+			return Optional.of(new String(html, StandardCharsets.UTF_8));
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public synchronized void put(String rendererId, String markdown, String html) {
+		ByteBuffer key = key(rendererId, markdown);
+		if (this.index.containsKey(key)) {
+			return;
+		}
+		byte[] body = html.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = ByteBuffer.allocate(HEADER_LENGTH + body.length)
+			.put(key.duplicate())
+			.putInt(body.length)
+			.put(body)
+			.flip();
+		try {
+			long offset = this.size;
+			while (record.hasRemaining()) {
+				this.size += this.channel.write(record, this.size);
+			}
+			this.index.put(key, offset);
+			if (this.size > this.maxSize) {
+				compact();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public synchronized int entries() {
+		return this.index.size();
+	}
+
+	public synchronized long size() {
+		return this.size;
+	}
+
+	@Override
+	public synchronized void destroy() throws IOException {
+		this.mapped = null;
+		this.channel.close();
+	}
+
+	private void open() throws IOException {
+		this.channel = FileChannel.open(this.segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.index.clear();
+		this.size = this.channel.size();
+		this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+		long position = 0;
+		while (position + HEADER_LENGTH <= this.size) {
+			int length = this.mapped.getInt(Math.toIntExact(position + KEY_LENGTH));
+			if (length < 0 || position + HEADER_LENGTH + length > this.size) {
+				break;
+			}
+			byte[] key = new byte[KEY_LENGTH];
+			this.mapped.get(Math.toIntExact(position), key);
+			this.index.put(ByteBuffer.wrap(key), position);
+			position += HEADER_LENGTH + length;
+		}
+		if (position < this.size) {
+			log.warn("Truncate incomplete record in {} at {}", this.segment, position);
+			this.channel.truncate(position);
+			this.size = position;
+		}
+	}
+
+	private ByteBuffer mapped(long offset) throws IOException {
+		if (offset + HEADER_LENGTH > this.mapped.capacity()
+				|| offset + HEADER_LENGTH + this.mapped.getInt(Math.toIntExact(offset + KEY_LENGTH)) > this.mapped
+					.capacity()) {
+			this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+		}
+		return this.mapped;
+	}
+
+	/**
+	 * Keep the most recently appended records that fit into half of the max size.
+	 */
+	private void compact() throws IOException {
+		ByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+		List<Map.Entry<ByteBuffer, Long>> entries = this.index.entrySet()
+			.stream()
+			.sorted(Map.Entry.<ByteBuffer, Long>comparingByValue(Comparator.reverseOrder()))
+			.toList();
+		Path compacted = this.segment.resolveSibling(this.segment.getFileName() + ".compact");
+		long retained = 0;
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			int kept = 0;
+			for (Map.Entry<ByteBuffer, Long> entry : entries) {
+				int offset = Math.toIntExact(entry.getValue());
+				int length = HEADER_LENGTH + buffer.getInt(offset + KEY_LENGTH);
+				if (retained + length > this.maxSize / 2) {
+					break;
+				}
+				retained += length;
+				kept++;
+			}
+			for (Map.Entry<ByteBuffer, Long> entry : entries.subList(0, kept).reversed()) {
+				int offset = Math.toIntExact(entry.getValue());
+				ByteBuffer record = buffer.slice(offset, HEADER_LENGTH + buffer.getInt(offset + KEY_LENGTH));
+				while (record.hasRemaining()) {
+					out.write(record);
+				}
+			}
+		}
+		this.mapped = null;
+		this.channel.close();
+		Files.move(compacted, this.segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		open();
+		log.debug("Compacted {} to {} bytes ({} entries)", this.segment, this.size, this.index.size());
+	}
+
+	static ByteBuffer key(String rendererId, String markdown) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			messageDigest.update(rendererId.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte) 0);
+			messageDigest.update(markdown.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(messageDigest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -1,5 +1,17 @@
 package hajiboot;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.ast.Document;
@@ -9,14 +21,102 @@ import org.springframework.stereotype.Component;
 @Offline
 public class FlexmarkMarkdownRenderer implements MarkdownRenderer {
 
+	static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+	private static final Pattern REFERENCE_DEFINITION = Pattern.compile("^ {0,3}\\[([^\\]]+)\\]:.*$");
+
+	private static final Pattern REFERENCE = Pattern.compile("\\[([^\\]]+)\\]");
+
 	private final Parser parser = Parser.builder().build();
 
 	private final HtmlRenderer renderer = HtmlRenderer.builder().build();
 
 	@Override
 	public String render(String markdown) {
+		return (markdown.length() < PARALLEL_THRESHOLD) ? renderSequential(markdown) : renderParallel(markdown);
+	}
+
+	String renderSequential(String markdown) {
 		Document document = this.parser.parse(markdown);
 		return this.renderer.render(document);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Render top-level blocks on the common fork-join pool and join the results in
+	 * order. Link reference definitions (including {@code [^footnote]:} labels) are
+	 * collected up front and appended to every block that refers to them.
+	 */
+	String renderParallel(String markdown) {
+		List<String> blocks = split(markdown);
+		Map<String, String> definitions = referenceDefinitions(markdown);
+		return blocks.parallelStream()
+			.map(block -> renderSequential(withDefinitions(block, definitions)))
+			.collect(Collectors.joining());
+	}
+
+	static List<String> split(String markdown) {
+		MarkdownBlockReader reader = new MarkdownBlockReader(new StringReader(markdown));
+		List<String> blocks = new ArrayList<>();
+		try {
+			String block;
+			while ((block = reader.nextBlock()) != null) {
+				blocks.add(block);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return blocks;
+	}
+
+	static Map<String, String> referenceDefinitions(String markdown) {
+		Map<String, String> definitions = new LinkedHashMap<>();
+		String fence = null;
+		Pattern htmlEnd = null;
+		for (String line : markdown.split("\n")) {
+			String stripped = line.stripLeading();
+			if (fence != null) {
+				if (MarkdownBlockReader.closesFence(stripped, fence)) {
+					fence = null;
+				}
+				continue;
+			}
+			if (htmlEnd != null) {
+				if (htmlEnd.matcher(line).find()) {
+					htmlEnd = null;
+				}
+				continue;
+			}
+			if ((fence = MarkdownBlockReader.openFence(stripped)) != null) {
+				continue;
+			}
+			htmlEnd = MarkdownBlockReader.openHtmlBlock(line);
+			Matcher matcher = REFERENCE_DEFINITION.matcher(line);
+			if (matcher.matches()) {
+				definitions.putIfAbsent(normalizeLabel(matcher.group(1)), line); // first definition wins
+			}
+		}
+		return definitions;
+	}
+
+	static String withDefinitions(String block, Map<String, String> definitions) {
+		if (definitions.isEmpty()) {
+			return block;
+		}
+		StringBuilder sb = null;
+		Matcher matcher = REFERENCE.matcher(block);
+		while (matcher.find()) {
+			String definition = definitions.get(normalizeLabel(matcher.group(1)));
+			if (definition != null) {
+				sb = (sb == null) ? new StringBuilder(block).append("\n\n") : sb;
+				sb.append(definition).append('\n');
+			}
+		}
+		return (sb == null) ? block : sb.toString();
+	}
+
+	private static String normalizeLabel(String label) {
+		return label.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+}
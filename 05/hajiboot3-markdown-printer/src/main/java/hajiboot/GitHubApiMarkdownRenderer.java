@@ -1,6 +1,25 @@
 package hajiboot;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 
 @Component
@@ -9,17 +28,146 @@ public class GitHubApiMarkdownRenderer implements MarkdownRenderer {
 
 	private final RestClient restClient;
 
-	public GitHubApiMarkdownRenderer(RestClient.Builder restClientBuilder) {
-		this.restClient = restClientBuilder.build();
+	private final HttpClient httpClient;
+
+	private final URI uri;
+
+	private final String accessToken;
+
+	private final GitHubRateLimiter rateLimiter;
+
+	// concurrent renders of the same markdown share one in-flight request
+	private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+	public GitHubApiMarkdownRenderer(GitHubProperties props, RestClient.Builder restClientBuilder,
+			GitHubRateLimiter rateLimiter) {
+		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+		this.uri = markdownUri(props.apiUrl());
+		this.accessToken = props.accessToken();
+		this.rateLimiter = rateLimiter;
+		this.restClient = restClientBuilder.requestFactory(new JdkClientHttpRequestFactory(this.httpClient))
+			.defaultHeaders(headers -> {
+				if (StringUtils.hasText(this.accessToken)) {
+					headers.setBearerAuth(this.accessToken);
+				}
+			})
+			.requestInterceptor((request, body, execution) -> {
+				ClientHttpResponse response = execution.execute(request, body);
+				this.rateLimiter.update(this.accessToken, response.getHeaders());
+				return response;
+			})
+			.build();
 	}
 
 	@Override
 	public String render(String markdown) {
-		return this.restClient.post()
-			.uri("https://api.github.com/markdown/raw")
-			.body(markdown)
-			.retrieve()
-			.body(String.class);
+		CompletableFuture<String> future = new CompletableFuture<>();
+		CompletableFuture<String> existing = this.inFlight.putIfAbsent(markdown, future);
+		if (existing != null) {
+			return join(existing);
+		}
+		try {
+			this.rateLimiter.acquire(this.accessToken);
+			String html = this.restClient.post()
+				.uri(this.uri)
+				.body(markdown)
+				.retrieve()
+				.body(String.class);
+			future.complete(html);
+			return html;
+		}
+		catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			this.inFlight.remove(markdown, future);
+		}
+	}
+
+	@Override
+	public CompletableFuture<String> renderAsync(String markdown) {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		CompletableFuture<String> existing = this.inFlight.putIfAbsent(markdown, future);
+		if (existing != null) {
+			return existing.copy();
+		}
+		long delay;
+		try {
+			delay = this.rateLimiter.reserve(this.accessToken);
+		}
+		catch (RateLimitExceededException e) {
+			this.inFlight.remove(markdown, future);
+			future.completeExceptionally(e);
+			return future.copy();
+		}
+		HttpRequest.Builder request = HttpRequest.newBuilder(this.uri)
+			.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+			.POST(HttpRequest.BodyPublishers.ofString(markdown, StandardCharsets.UTF_8));
+		if (StringUtils.hasText(this.accessToken)) {
+			request.header(HttpHeaders.AUTHORIZATION, "Bearer " + this.accessToken);
+		}
+		CompletableFuture<Void> paced = (delay > 0)
+				? CompletableFuture.runAsync(() -> {
+				}, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+				: CompletableFuture.completedFuture(null);
+		paced
+			.thenCompose(v -> this.httpClient.sendAsync(request.build(),
+					HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)))
+			.thenApply(response -> {
+				this.rateLimiter.update(this.accessToken, toHttpHeaders(response));
+				return body(response);
+			})
+			.whenComplete((html, e) -> {
+				this.inFlight.remove(markdown, future);
+				if (e != null) {
+					future.completeExceptionally((e instanceof CompletionException) ? e.getCause() : e);
+				}
+				else {
+					future.complete(html);
+				}
+			});
+		return future.copy();
+	}
+
+	/**
+	 * Keeps the path of the API URL, e.g. {@code https://github.example.com/api/v3} for
+	 * GitHub Enterprise.
+	 */
+	static URI markdownUri(URI apiUrl) {
+		String base = apiUrl.toString();
+		return URI.create(base.endsWith("/") ? base : base + "/").resolve("markdown/raw");
+	}
+
+	static String body(HttpResponse<String> response) {
+		HttpStatusCode statusCode = HttpStatusCode.valueOf(response.statusCode());
+		if (statusCode.is4xxClientError()) {
+			throw HttpClientErrorException.create(statusCode, "", toHttpHeaders(response),
+					response.body().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+		}
+		if (statusCode.isError()) {
+			throw HttpServerErrorException.create(statusCode, "", toHttpHeaders(response),
+					response.body().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+		}
+		return response.body();
+	}
+
+	static HttpHeaders toHttpHeaders(HttpResponse<?> response) {
+		HttpHeaders headers = new HttpHeaders();
+		response.headers().map().forEach(headers::addAll);
+		return headers;
+	}
+
+	private static String join(CompletableFuture<String> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
 	}
 
 }
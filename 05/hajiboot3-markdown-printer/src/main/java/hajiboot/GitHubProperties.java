@@ -0,0 +1,15 @@
+package hajiboot;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "github")
+public record GitHubProperties(@DefaultValue("https://api.github.com") URI apiUrl, String accessToken,
+		@DefaultValue RateLimit rateLimit) {
+
+	public record RateLimit(@DefaultValue("10") int burst, @DefaultValue("5s") Duration maxWait) {
+	}
+}
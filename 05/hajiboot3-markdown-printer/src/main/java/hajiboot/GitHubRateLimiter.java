@@ -0,0 +1,190 @@
+package hajiboot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Token buckets, one per access token, that pace calls to the GitHub API. The budget
+ * ({@code X-RateLimit-Remaining}) and the window ({@code X-RateLimit-Reset}) are taken
+ * from every response, and the bucket refills at {@code remaining / (reset - now)} so
+ * that the budget lasts until the window resets.
+ */
+@Component
+public class GitHubRateLimiter {
+
+	static final String REMAINING = "X-RateLimit-Remaining";
+
+	static final String RESET = "X-RateLimit-Reset";
+
+	private static final Duration WINDOW = Duration.ofHours(1);
+
+	private final Logger log = LoggerFactory.getLogger(GitHubRateLimiter.class);
+
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+	private final GitHubProperties.RateLimit props;
+
+	private final MeterRegistry meterRegistry;
+
+	public GitHubRateLimiter(GitHubProperties props, MeterRegistry meterRegistry) {
+		this.props = props.rateLimit();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Reserves a permit for the given access token.
+	 * @return the nanoseconds to wait before sending the request
+	 * @throws RateLimitExceededException if no permit is available within
+	 * {@code github.rate-limit.max-wait}
+	 */
+	public long reserve(String accessToken) {
+		long delay = bucket(accessToken).reserve(this.props.maxWait().toNanos());
+		if (delay < 0) {
+			throw new RateLimitExceededException(
+					"GitHub API rate limit budget is exhausted (remaining=%d)".formatted(budget(accessToken)));
+		}
+		return delay;
+	}
+
+	public void acquire(String accessToken) {
+		long delay = reserve(accessToken);
+		if (delay > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	public void update(String accessToken, HttpHeaders headers) {
+		String remaining = headers.getFirst(REMAINING);
+		String reset = headers.getFirst(RESET);
+		if (remaining != null && reset != null) {
+			try {
+				bucket(accessToken).update(Long.parseLong(remaining), Long.parseLong(reset));
+			}
+			catch (NumberFormatException e) {
+				log.debug("Ignore malformed rate limit headers: {}={}, {}={}", REMAINING, remaining, RESET, reset);
+			}
+		}
+	}
+
+	public long budget(String accessToken) {
+		return bucket(accessToken).remaining();
+	}
+
+	private Bucket bucket(String accessToken) {
+		String key = StringUtils.hasText(accessToken) ? accessToken : "";
+		return this.buckets.computeIfAbsent(key, k -> {
+			// unauthenticated requests get 60 calls per hour, authenticated ones 5000
+			Bucket bucket = new Bucket(this.props.burst(), k.isEmpty() ? 60 : 5000);
+			Gauge.builder("github.ratelimit.remaining", bucket, Bucket::remaining)
+				.tag("bucket", k.isEmpty() ? "anonymous" : fingerprint(k))
+				.register(this.meterRegistry);
+			return bucket;
+		});
+	}
+
+	private static String fingerprint(String accessToken) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(accessToken.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest, 0, 4);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static class Bucket {
+
+		private final int burst;
+
+		private final long limit;
+
+		private double tokens;
+
+		private long remaining;
+
+		private long resetAt;
+
+		private double ratePerNano;
+
+		private long refilledAt;
+
+		Bucket(int burst, long limit) {
+			this.burst = burst;
+			this.limit = limit;
+			this.tokens = burst;
+			this.refilledAt = System.nanoTime();
+			startWindow(limit, this.refilledAt + WINDOW.toNanos());
+		}
+
+		synchronized long reserve(long maxWait) {
+			long now = System.nanoTime();
+			if (now >= this.resetAt) {
+				startWindow(this.limit, now + WINDOW.toNanos());
+			}
+			refill(now);
+			long wait;
+			if (this.remaining <= 0) {
+				wait = this.resetAt - now;
+			}
+			else if (this.tokens >= 1) {
+				wait = 0;
+			}
+			else {
+				wait = (long) ((1 - this.tokens) / this.ratePerNano);
+			}
+			if (wait > maxWait) {
+				return -1;
+			}
+			this.tokens -= 1; // may go negative so that queued callers wait in turn
+			// a caller waiting for the reset spends the next window's budget, which update() will report
+			this.remaining = Math.max(this.remaining - 1, 0);
+			return wait;
+		}
+
+		synchronized void update(long remaining, long resetEpochSecond) {
+			long now = System.nanoTime();
+			refill(now);
+			long untilReset = TimeUnit.MILLISECONDS.toNanos(resetEpochSecond * 1000 - System.currentTimeMillis());
+			startWindow(remaining, now + Math.max(untilReset, 0));
+			this.tokens = Math.min(this.tokens, remaining);
+		}
+
+		synchronized long remaining() {
+			return this.remaining;
+		}
+
+		private void startWindow(long remaining, long resetAt) {
+			this.remaining = remaining;
+			this.resetAt = resetAt;
+			this.ratePerNano = (double) remaining / Math.max(resetAt - System.nanoTime(), 1_000_000_000L);
+		}
+
+		private void refill(long now) {
+			this.tokens = Math.min(this.burst, this.tokens + (now - this.refilledAt) * this.ratePerNano);
+			this.refilledAt = now;
+		}
+
+	}
+
+}
@@ -2,8 +2,11 @@ package hajiboot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({ MarkdownCacheProperties.class, GitHubProperties.class,
+		AdaptiveRendererProperties.class })
 public class Hajiboot3MarkdownPrinterApplication {
 
 	public static void main(String[] args) {
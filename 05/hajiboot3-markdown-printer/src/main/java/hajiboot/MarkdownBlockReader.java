@@ -0,0 +1,143 @@
+package hajiboot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads markdown one top-level block at a time. A block ends at a blank line that is
+ * outside a fenced code block and is followed by a non-indented line, so indented
+ * continuations (nested list content, indented code) stay in the same block. Items of a
+ * loose list are kept together as well, and so are HTML blocks that CommonMark only ends
+ * at a closing marker ({@code <pre>}, {@code <script>}, {@code <style>},
+ * {@code <textarea>}, comments, processing instructions, declarations and CDATA).
+ */
+public class MarkdownBlockReader {
+
+	private static final Pattern LIST_ITEM = Pattern.compile("^ {0,3}([-+*]|\\d{1,9}[.)])( |\t|$).*");
+
+	private static final Pattern FENCE = Pattern.compile("^(`{3,}|~{3,})");
+
+	// CommonMark HTML block start conditions 1 to 5, which end at a marker rather than a blank line
+	private static final Pattern HTML_BLOCK_START = Pattern.compile(
+			"^ {0,3}(?:(<(?:pre|script|style|textarea)(?:[ \t>]|$))|(<!--)|(<\\?)|(<!\\[CDATA\\[)|(<![A-Za-z]))",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern[] HTML_BLOCK_END = {
+			Pattern.compile("</(?:pre|script|style|textarea)>", Pattern.CASE_INSENSITIVE),
+			Pattern.compile("-->"),
+			Pattern.compile("\\?>"),
+			Pattern.compile("]]>"),
+			Pattern.compile(">") };
+
+	private final BufferedReader reader;
+
+	private String pending;
+
+	public MarkdownBlockReader(Reader reader) {
+		this.reader = (reader instanceof BufferedReader bufferedReader) ? bufferedReader : new BufferedReader(reader);
+	}
+
+	/**
+	 * @return the next block including its trailing newlines, or {@code null} at the end
+	 * of the input
+	 */
+	public String nextBlock() throws IOException {
+		StringBuilder block = new StringBuilder();
+		String fence = null;
+		Pattern htmlEnd = null;
+		boolean content = false;
+		boolean blank = false;
+		boolean list = false;
+		String line;
+		while ((line = nextLine()) != null) {
+			if (fence == null && htmlEnd == null && blank && content && !line.isBlank() && !isIndented(line)
+					&& !(list && isListItem(line))) {
+				this.pending = line;
+				break;
+			}
+			block.append(line).append('\n');
+			String stripped = line.stripLeading();
+			if (fence != null) {
+				if (closesFence(stripped, fence)) {
+					fence = null;
+				}
+			}
+			else if (htmlEnd != null) {
+				if (htmlEnd.matcher(line).find()) {
+					htmlEnd = null;
+				}
+			}
+			else if ((fence = openFence(stripped)) == null) {
+				htmlEnd = openHtmlBlock(line);
+			}
+			blank = fence == null && htmlEnd == null && line.isBlank();
+			if (!content && !line.isBlank()) {
+				content = true;
+				list = isListItem(line);
+			}
+		}
+		return block.isEmpty() ? null : block.toString();
+	}
+
+	private String nextLine() throws IOException {
+		if (this.pending != null) {
+			String line = this.pending;
+			this.pending = null;
+			return line;
+		}
+		return this.reader.readLine();
+	}
+
+	/**
+	 * @return the opening fence of a fenced code block, or {@code null}
+	 */
+	static String openFence(String stripped) {
+		Matcher matcher = FENCE.matcher(stripped);
+		return matcher.find() ? matcher.group(1) : null;
+	}
+
+	/**
+	 * A closing fence uses the same character at least as many times as the opening one
+	 * and has nothing else on the line.
+	 */
+	static boolean closesFence(String stripped, String fence) {
+		if (!stripped.startsWith(fence)) {
+			return false;
+		}
+		int end = fence.length();
+		while (end < stripped.length() && stripped.charAt(end) == fence.charAt(0)) {
+			end++;
+		}
+		return stripped.substring(end).isBlank();
+	}
+
+	/**
+	 * @return the end marker of an HTML block that starts on this line and does not end
+	 * on it, or {@code null}
+	 */
+	static Pattern openHtmlBlock(String line) {
+		Matcher matcher = HTML_BLOCK_START.matcher(line);
+		if (!matcher.find()) {
+			return null;
+		}
+		for (int i = 1; i <= HTML_BLOCK_END.length; i++) {
+			if (matcher.group(i) != null) {
+				Pattern end = HTML_BLOCK_END[i - 1];
+				return end.matcher(line).region(matcher.end(), line.length()).find() ? null : end;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isListItem(String line) {
+		return LIST_ITEM.matcher(line).matches();
+	}
+
+	private static boolean isIndented(String line) {
+		return line.startsWith(" ") || line.startsWith("\t");
+	}
+
+}
@@ -0,0 +1,18 @@
+package hajiboot;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "markdown.cache")
+public record MarkdownCacheProperties(@DefaultValue("true") boolean enabled, @DefaultValue("1000") long maximumSize,
+		Duration expireAfterWrite /* null means no TTL */, @DefaultValue Disk disk) {
+
+	public record Disk(@DefaultValue("false") boolean enabled, @DefaultValue(".markdown-cache") Path directory,
+			@DefaultValue("64MB") DataSize maxSize) {
+	}
+
+}
@@ -13,7 +13,7 @@ public class MarkdownPrinter {
 
 	private final MarkdownRenderer renderer;
 
-	public MarkdownPrinter(@Online /* (1) */ MarkdownRenderer renderer) {
+	public MarkdownPrinter(@Adaptive MarkdownRenderer renderer) {
 		this.renderer = renderer;
 	}
 
@@ -1,5 +1,7 @@
 package hajiboot;
 
+import java.util.List;
+
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
@@ -9,12 +11,39 @@ public class MarkdownPrinterApplicationRunner implements ApplicationRunner {
 
 	private final MarkdownPrinter markdownPrinter;
 
-	public MarkdownPrinterApplicationRunner(MarkdownPrinter markdownPrinter) {
+	private final StreamingMarkdownPrinter streamingMarkdownPrinter;
+
+	private final BatchMarkdownPrinter batchMarkdownPrinter;
+
+	public MarkdownPrinterApplicationRunner(MarkdownPrinter markdownPrinter,
+			StreamingMarkdownPrinter streamingMarkdownPrinter, BatchMarkdownPrinter batchMarkdownPrinter) {
 		this.markdownPrinter = markdownPrinter;
+		this.streamingMarkdownPrinter = streamingMarkdownPrinter;
+		this.batchMarkdownPrinter = batchMarkdownPrinter;
 	}
 
 	@Override
 	public void run(ApplicationArguments args) throws Exception {
+		if (args.containsOption("batch")) { // e.g. --batch=docs or --batch='docs/**/*.md' --parallelism=8
+			List<String> values = args.getOptionValues("parallelism");
+			int parallelism;
+			try {
+				parallelism = BatchMarkdownPrinter.parallelism((values == null) ? null : values.get(0));
+			}
+			catch (IllegalArgumentException e) {
+				System.err.println(e.getMessage());
+				System.err.println("Usage: --batch=<directory or glob> [--parallelism=<threads>]");
+				return;
+			}
+			for (String pathOrGlob : args.getOptionValues("batch")) {
+				System.out.println(this.batchMarkdownPrinter.print(pathOrGlob, parallelism));
+			}
+			return;
+		}
+		if (args.containsOption("stream")) {
+			this.streamingMarkdownPrinter.print(System.in, System.out);
+			return;
+		}
 		this.markdownPrinter.print(System.in);
 	}
 
@@ -1,7 +1,13 @@
 package hajiboot;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface MarkdownRenderer {
 
 	String render(String markdown);
 
+	default CompletableFuture<String> renderAsync(String markdown) {
+		return CompletableFuture.completedFuture(render(markdown));
+	}
+
 }
\ No newline at end of file
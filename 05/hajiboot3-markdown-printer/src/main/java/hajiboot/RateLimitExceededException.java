@@ -0,0 +1,9 @@
+package hajiboot;
+
+public class RateLimitExceededException extends RuntimeException {
+
+	public RateLimitExceededException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,46 @@
+package hajiboot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the input block by block so that peak memory is bounded by the largest block
+ * rather than the whole document. Since blocks are rendered independently, link
+ * reference definitions only resolve within the block that defines them.
+ */
+@Component
+public class StreamingMarkdownPrinter {
+
+	private final MarkdownRenderer renderer;
+
+	public StreamingMarkdownPrinter(@Offline MarkdownRenderer renderer) {
+		// blocks are one-off fragments; caching them would retain every block in memory
+		this.renderer = (renderer instanceof CachingMarkdownRenderer caching) ? caching.getDelegate() : renderer;
+	}
+
+	public void print(InputStream stream, OutputStream out) {
+		MarkdownBlockReader reader = new MarkdownBlockReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try {
+			writer.write("Input markdown: ");
+			String block;
+			while ((block = reader.nextBlock()) != null) {
+				writer.write(this.renderer.render(block));
+			}
+			writer.flush();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package hajiboot;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveMarkdownRendererTest {
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	AtomicInteger onlineCalls = new AtomicInteger();
+
+	AtomicBoolean onlineDown = new AtomicBoolean();
+
+	AtomicBoolean onlineHung = new AtomicBoolean();
+
+	MarkdownRenderer online = new MarkdownRenderer() {
+		@Override
+		public String render(String markdown) {
+			return renderAsync(markdown).join();
+		}
+
+		@Override
+		public CompletableFuture<String> renderAsync(String markdown) {
+			onlineCalls.incrementAndGet();
+			if (onlineHung.get()) {
+				return new CompletableFuture<>(); // never completes
+			}
+			if (onlineDown.get()) {
+				return CompletableFuture.failedFuture(new IllegalStateException("down"));
+			}
+			return CompletableFuture.completedFuture("online:" + markdown);
+		}
+	};
+
+	MarkdownRenderer offline = markdown -> "offline:" + markdown;
+
+	@Test
+	void routeOnline() {
+		AdaptiveMarkdownRenderer renderer = renderer(Duration.ofSeconds(30), null);
+		assertThat(renderer.render("a")).isEqualTo("online:a");
+		assertThat(routed("online")).isEqualTo(1);
+		assertThat(this.meterRegistry.get("markdown.render").tag("backend", "online").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void fallbackAndOpenCircuit() {
+		AdaptiveMarkdownRenderer renderer = renderer(Duration.ofSeconds(30), null);
+		this.onlineDown.set(true);
+		for (int i = 0; i < 4; i++) {
+			assertThat(renderer.render("a")).isEqualTo("offline:a");
+		}
+		assertThat(routed("fallback")).isEqualTo(4);
+		assertThat(renderer.isOpen()).isTrue();
+		assertThat(this.meterRegistry.get("markdown.circuit.open").gauge().value()).isEqualTo(1);
+
+		// open: online is not called
+		assertThat(renderer.render("a")).isEqualTo("offline:a");
+		assertThat(this.onlineCalls).hasValue(4);
+		assertThat(routed("offline")).isEqualTo(1);
+	}
+
+	@Test
+	void closeCircuitAfterProbe() throws Exception {
+		AdaptiveMarkdownRenderer renderer = renderer(Duration.ofMillis(50), null);
+		this.onlineDown.set(true);
+		for (int i = 0; i < 4; i++) {
+			renderer.render("a");
+		}
+		assertThat(renderer.isOpen()).isTrue();
+		this.onlineDown.set(false);
+		Thread.sleep(100);
+		assertThat(renderer.render("a")).isEqualTo("online:a");
+		assertThat(renderer.isOpen()).isFalse();
+	}
+
+	@Test
+	void timeoutHungProbe() throws Exception {
+		AdaptiveMarkdownRenderer renderer = renderer(Duration.ofMillis(50), null);
+		this.onlineHung.set(true);
+		for (int i = 0; i < 4; i++) {
+			assertThat(renderer.render("a")).isEqualTo("offline:a");
+		}
+		assertThat(routed("fallback")).isEqualTo(4);
+		assertThat(renderer.isOpen()).isTrue();
+
+		// a hung probe fails and the circuit stays open
+		Thread.sleep(100);
+		assertThat(renderer.render("a")).isEqualTo("offline:a");
+		assertThat(renderer.isOpen()).isTrue();
+
+		// the next probe is let through
+		this.onlineHung.set(false);
+		Thread.sleep(100);
+		assertThat(renderer.render("a")).isEqualTo("online:a");
+		assertThat(renderer.isOpen()).isFalse();
+	}
+
+	@Test
+	void hedgeSlowOnline() {
+		MarkdownRenderer slow = new MarkdownRenderer() {
+			@Override
+			public String render(String markdown) {
+				return renderAsync(markdown).join();
+			}
+
+			@Override
+			public CompletableFuture<String> renderAsync(String markdown) {
+				return new CompletableFuture<>(); // never completes
+			}
+		};
+		AdaptiveMarkdownRenderer renderer = new AdaptiveMarkdownRenderer(slow, this.offline,
+				new AdaptiveRendererProperties(Duration.ofSeconds(2), 0.5, 100, 4, Duration.ofSeconds(30),
+						Duration.ofMillis(50), Duration.ofSeconds(10)),
+				this.meterRegistry);
+		assertThat(renderer.render("a")).isEqualTo("offline:a");
+		assertThat(routed("hedged")).isEqualTo(1);
+	}
+
+	AdaptiveMarkdownRenderer renderer(Duration openDuration, Duration hedgeDelay) {
+		return new AdaptiveMarkdownRenderer(this.online, this.offline,
+				new AdaptiveRendererProperties(Duration.ofSeconds(2), 0.5, 100, 4, openDuration, hedgeDelay,
+						Duration.ofMillis(100)),
+				this.meterRegistry);
+	}
+
+	double routed(String decision) {
+		return this.meterRegistry.get("markdown.route").tag("decision", decision).counter().count();
+	}
+
+}
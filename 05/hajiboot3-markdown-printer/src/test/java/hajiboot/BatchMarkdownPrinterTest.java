@@ -0,0 +1,99 @@
+package hajiboot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchMarkdownPrinterTest {
+
+	@TempDir
+	Path dir;
+
+	BatchMarkdownPrinter printer = new BatchMarkdownPrinter(new FlexmarkMarkdownRenderer());
+
+	@Test
+	void printDirectory() throws Exception {
+		Files.writeString(dir.resolve("a.md"), "Hello **A**");
+		Files.createDirectories(dir.resolve("sub"));
+		Files.writeString(dir.resolve("sub/b.md"), "Hello **B**");
+		Files.writeString(dir.resolve("c.txt"), "Hello **C**");
+
+		BatchMarkdownPrinter.Summary summary = this.printer.print(dir.toString(), 2);
+		assertThat(summary.rendered()).isEqualTo(2);
+		assertThat(summary.skipped()).isZero();
+		assertThat(summary.p99()).isPositive();
+		assertThat(Files.readString(dir.resolve("a.html"))).isEqualTo("<p>Hello <strong>A</strong></p>\n");
+		assertThat(Files.readString(dir.resolve("sub/b.html"))).isEqualTo("<p>Hello <strong>B</strong></p>\n");
+		assertThat(dir.resolve("c.html")).doesNotExist();
+
+		// unchanged
+		summary = this.printer.print(dir.toString(), 2);
+		assertThat(summary.rendered()).isZero();
+		assertThat(summary.skipped()).isEqualTo(2);
+
+		// touched but same content
+		Files.setLastModifiedTime(dir.resolve("a.md"), FileTime.from(Instant.now().plusSeconds(10)));
+		summary = this.printer.print(dir.toString(), 2);
+		assertThat(summary.rendered()).isZero();
+
+		// modified
+		Files.writeString(dir.resolve("a.md"), "Hello **AA**");
+		Files.setLastModifiedTime(dir.resolve("a.md"), FileTime.from(Instant.now().plusSeconds(20)));
+		summary = this.printer.print(dir.toString(), 2);
+		assertThat(summary.rendered()).isEqualTo(1);
+		assertThat(Files.readString(dir.resolve("a.html"))).isEqualTo("<p>Hello <strong>AA</strong></p>\n");
+	}
+
+	@Test
+	void printGlob() throws Exception {
+		Files.createDirectories(dir.resolve("docs/sub"));
+		Files.writeString(dir.resolve("docs/a.md"), "Hello **A**");
+		Files.writeString(dir.resolve("docs/sub/b.md"), "Hello **B**");
+
+		BatchMarkdownPrinter.Summary summary = this.printer.print(dir + "/docs/sub/*.md", 1);
+		assertThat(summary.rendered()).isEqualTo(1);
+		assertThat(dir.resolve("docs/sub/b.html")).exists();
+		assertThat(dir.resolve("docs/a.html")).doesNotExist();
+	}
+
+	@Test
+	void bypassCache() throws Exception {
+		CachingMarkdownRenderer cachingRenderer = new CachingMarkdownRenderer(new FlexmarkMarkdownRenderer(),
+				new MarkdownCacheProperties(true, 1000, null, null));
+		Files.writeString(dir.resolve("a.md"), "Hello **A**");
+		new BatchMarkdownPrinter(cachingRenderer).print(dir.toString(), 1);
+		assertThat(dir.resolve("a.html")).exists();
+		assertThat(cachingRenderer.stats().requestCount()).isZero();
+	}
+
+	@Test
+	void parallelism() {
+		assertThat(BatchMarkdownPrinter.parallelism("8")).isEqualTo(8);
+		assertThat(BatchMarkdownPrinter.parallelism(null)).isEqualTo(Runtime.getRuntime().availableProcessors());
+		assertThatThrownBy(() -> BatchMarkdownPrinter.parallelism("0")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("--parallelism must be a positive integer: 0");
+		assertThatThrownBy(() -> BatchMarkdownPrinter.parallelism("-1")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> BatchMarkdownPrinter.parallelism("many")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void summary() {
+		long[] latencies = { 3, 1, 2 };
+		BatchMarkdownPrinter.Summary summary = BatchMarkdownPrinter.Summary.of(3, 0, 10, Duration.ofSeconds(1),
+				latencies);
+		assertThat(latencies).containsExactly(3, 1, 2);
+		assertThat(summary.p50()).isEqualTo(Duration.ofNanos(2));
+		assertThat(summary.p99()).isEqualTo(Duration.ofNanos(3));
+		assertThat(summary).isEqualTo(BatchMarkdownPrinter.Summary.of(3, 0, 10, Duration.ofSeconds(1),
+				new long[] { 1, 2, 3 }));
+	}
+
+}
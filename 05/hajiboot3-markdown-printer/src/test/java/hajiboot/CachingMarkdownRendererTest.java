@@ -0,0 +1,82 @@
+package hajiboot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingMarkdownRendererTest {
+
+	@Test
+	void render() {
+		MarkdownRenderer markdownRenderer = Mockito.mock(MarkdownRenderer.class);
+		given(markdownRenderer.render(anyString())).willReturn("<p>Markdown!</p>");
+		CachingMarkdownRenderer renderer = new CachingMarkdownRenderer(markdownRenderer,
+				new MarkdownCacheProperties(true, 10, null, null));
+
+		assertThat(renderer.render("Markdown!")).isEqualTo("<p>Markdown!</p>");
+		assertThat(renderer.render("Markdown!")).isEqualTo("<p>Markdown!</p>");
+		verify(markdownRenderer, times(1)).render("Markdown!");
+		assertThat(renderer.stats().hitCount()).isEqualTo(1);
+		assertThat(renderer.stats().missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void wrapQualifiedRenderers() {
+		new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(RestClientAutoConfiguration.class))
+			.withUserConfiguration(Config.class)
+			.run(context -> {
+				assertThat(context).hasSingleBean(MarkdownPrinter.class);
+				assertThat(context.getBean(FlexmarkMarkdownRenderer.class.getName()))
+					.isInstanceOf(CachingMarkdownRenderer.class);
+				assertThat(context.getBean(GitHubApiMarkdownRenderer.class.getName()))
+					.isInstanceOf(CachingMarkdownRenderer.class);
+				assertThat(context.getBean(AdaptiveMarkdownRenderer.class.getName()))
+					.isNotInstanceOf(CachingMarkdownRenderer.class);
+				SimpleMeterRegistry meterRegistry = context.getBean(SimpleMeterRegistry.class);
+				context.getBean(FlexmarkMarkdownRenderer.class.getName(), MarkdownRenderer.class).render("Markdown!");
+				assertThat(meterRegistry.get("cache.gets")
+					.tag("cache", FlexmarkMarkdownRenderer.class.getName())
+					.tag("result", "miss")
+					.functionCounter()
+					.count()).isEqualTo(1);
+			});
+	}
+
+	@Test
+	void disabled() {
+		new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(RestClientAutoConfiguration.class))
+			.withUserConfiguration(Config.class)
+			.withPropertyValues("markdown.cache.enabled=false")
+			.run(context -> assertThat(context.getBeansOfType(MarkdownRenderer.class).values())
+				.noneSatisfy(renderer -> assertThat(renderer).isInstanceOf(CachingMarkdownRenderer.class)));
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableConfigurationProperties({ MarkdownCacheProperties.class, GitHubProperties.class,
+			AdaptiveRendererProperties.class })
+	@Import({ CachingMarkdownRendererPostProcessor.class, FlexmarkMarkdownRenderer.class,
+			GitHubApiMarkdownRenderer.class, GitHubRateLimiter.class, AdaptiveMarkdownRenderer.class, MarkdownPrinter.class })
+	static class Config {
+
+		@Bean
+		SimpleMeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Compares the first render after startup with an empty segment (cold) and with a
+ * segment written by a previous run (warm). Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=hajiboot.DiskRenderCacheBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class DiskRenderCacheBenchmark {
+
+	static final String MARKDOWN = "# Title\n\n" + "Hello **Spring Boot**\n\n".repeat(1000);
+
+	final MarkdownCacheProperties props = new MarkdownCacheProperties(true, 1000, null, null);
+
+	final MarkdownRenderer renderer = new FlexmarkMarkdownRenderer();
+
+	Path dir;
+
+	Path warmSegment;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.dir = Files.createTempDirectory("render-cache");
+		this.warmSegment = this.dir.resolve("warm.seg");
+		DiskRenderCache cache = new DiskRenderCache(this.warmSegment, 1024 * 1024);
+		new CachingMarkdownRenderer(this.renderer, this.props, cache).render(MARKDOWN);
+		cache.destroy();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		FileSystemUtils.deleteRecursively(this.dir);
+	}
+
+	@Benchmark
+	public String cold() throws IOException {
+		Path segment = Files.createTempFile(this.dir, "cold", ".seg");
+		Files.delete(segment);
+		DiskRenderCache cache = new DiskRenderCache(segment, 1024 * 1024);
+		try {
+			return new CachingMarkdownRenderer(this.renderer, this.props, cache).render(MARKDOWN);
+		}
+		finally {
+			cache.destroy();
+		}
+	}
+
+	@Benchmark
+	public String warm() throws IOException {
+		DiskRenderCache cache = new DiskRenderCache(this.warmSegment, 1024 * 1024);
+		try {
+			return new CachingMarkdownRenderer(this.renderer, this.props, cache).render(MARKDOWN);
+		}
+		finally {
+			cache.destroy();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(DiskRenderCacheBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
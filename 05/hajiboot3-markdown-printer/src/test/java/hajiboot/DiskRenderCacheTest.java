@@ -0,0 +1,93 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskRenderCacheTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void putAndGet() throws Exception {
+		DiskRenderCache cache = new DiskRenderCache(dir.resolve("render-cache.seg"), 1024 * 1024);
+		cache.put("flexmark", "Hello **Spring Boot**", "<p>Hello <strong>Spring Boot</strong></p>");
+		assertThat(cache.get("flexmark", "Hello **Spring Boot**")).hasValue("<p>Hello <strong>Spring Boot</strong></p>");
+		assertThat(cache.get("github", "Hello **Spring Boot**")).isEmpty();
+		cache.destroy();
+	}
+
+	@Test
+	void surviveRestart() throws Exception {
+		DiskRenderCache cache = new DiskRenderCache(dir.resolve("render-cache.seg"), 1024 * 1024);
+		cache.put("flexmark", "a", "<p>a</p>");
+		cache.put("flexmark", "b", "<p>b</p>");
+		cache.destroy();
+
+		DiskRenderCache reopened = new DiskRenderCache(dir.resolve("render-cache.seg"), 1024 * 1024);
+		assertThat(reopened.entries()).isEqualTo(2);
+		assertThat(reopened.get("flexmark", "a")).hasValue("<p>a</p>");
+		assertThat(reopened.get("flexmark", "b")).hasValue("<p>b</p>");
+		reopened.destroy();
+	}
+
+	@Test
+	void truncateIncompleteRecord() throws Exception {
+		Path segment = dir.resolve("render-cache.seg");
+		DiskRenderCache cache = new DiskRenderCache(segment, 1024 * 1024);
+		cache.put("flexmark", "a", "<p>a</p>");
+		long size = cache.size();
+		cache.destroy();
+		Files.write(segment, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND);
+
+		DiskRenderCache reopened = new DiskRenderCache(segment, 1024 * 1024);
+		assertThat(reopened.size()).isEqualTo(size);
+		assertThat(reopened.get("flexmark", "a")).hasValue("<p>a</p>");
+		reopened.destroy();
+	}
+
+	@Test
+	void compact() throws Exception {
+		DiskRenderCache cache = new DiskRenderCache(dir.resolve("render-cache.seg"), 1024);
+		for (int i = 0; i < 100; i++) {
+			cache.put("flexmark", "markdown " + i, "<p>markdown " + i + "</p>");
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(1024);
+		assertThat(cache.get("flexmark", "markdown 99")).hasValue("<p>markdown 99</p>");
+		assertThat(cache.get("flexmark", "markdown 0")).isEmpty();
+		cache.destroy();
+	}
+
+	@Test
+	void warmStartupSkipsDelegate() throws IOException {
+		String markdown = "# Title\n\n" + "Hello **Spring Boot**\n\n".repeat(1000);
+		AtomicInteger renders = new AtomicInteger();
+		MarkdownRenderer countingRenderer = m -> {
+			renders.incrementAndGet();
+			return new FlexmarkMarkdownRenderer().render(m);
+		};
+		MarkdownCacheProperties props = new MarkdownCacheProperties(true, 1000, null, null);
+		Path segment = dir.resolve("render-cache.seg");
+
+		DiskRenderCache cold = new DiskRenderCache(segment, 1024 * 1024);
+		String coldHtml = new CachingMarkdownRenderer(countingRenderer, props, cold).render(markdown);
+		cold.destroy();
+		assertThat(renders).hasValue(1);
+
+		// a fresh in-memory cache over the same segment, as after a restart
+		DiskRenderCache warm = new DiskRenderCache(segment, 1024 * 1024);
+		String warmHtml = new CachingMarkdownRenderer(countingRenderer, props, warm).render(markdown);
+		warm.destroy();
+		assertThat(warmHtml).isEqualTo(coldHtml);
+		assertThat(renders).hasValue(1);
+	}
+
+}
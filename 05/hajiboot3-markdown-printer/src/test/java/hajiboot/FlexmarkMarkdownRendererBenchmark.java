@@ -0,0 +1,78 @@
+package hajiboot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=hajiboot.FlexmarkMarkdownRendererBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FlexmarkMarkdownRendererBenchmark {
+
+	static final String SECTION = """
+			## Section
+
+			Hello **Spring Boot**, see [the docs][docs] and [^1].
+
+			- item 1
+			- item 2
+
+			```java
+			System.out.println("Hello");
+			```
+
+			""";
+
+	@Param({ "1024", "1048576", "104857600" })
+	int size;
+
+	String markdown;
+
+	final FlexmarkMarkdownRenderer renderer = new FlexmarkMarkdownRenderer();
+
+	@Setup
+	public void setup() {
+		StringBuilder sb = new StringBuilder("# Title\n\n");
+		while (sb.length() < this.size) {
+			sb.append(SECTION);
+		}
+		sb.append("[docs]: https://docs.spring.io\n[^1]: https://spring.io\n");
+		this.markdown = sb.toString();
+	}
+
+	@Benchmark
+	public String sequential() {
+		return this.renderer.renderSequential(this.markdown);
+	}
+
+	@Benchmark
+	public String parallel() {
+		return this.renderer.renderParallel(this.markdown);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(FlexmarkMarkdownRendererBenchmark.class.getSimpleName()).build())
+			.run();
+	}
+
+}
@@ -0,0 +1,86 @@
+package hajiboot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlexmarkMarkdownRendererTest {
+
+	FlexmarkMarkdownRenderer renderer = new FlexmarkMarkdownRenderer();
+
+	@Test
+	void renderParallel() {
+		String markdown = """
+				# Title
+
+				Hello **Spring Boot**, see [the docs][docs] and [Spring].
+
+				- a
+
+				- b
+
+				```
+				[docs]: https://example.com
+				```
+
+				[docs]: https://docs.spring.io
+				[spring]: https://spring.io
+				""";
+		String html = this.renderer.renderParallel(markdown);
+		assertThat(html).isEqualTo(this.renderer.renderSequential(markdown));
+		assertThat(html).contains("<a href=\"https://docs.spring.io\">the docs</a>");
+		assertThat(html).contains("<a href=\"https://spring.io\">Spring</a>");
+	}
+
+	@Test
+	void renderParallelHtmlBlocks() {
+		String markdown = """
+				<pre>
+				a
+
+				b
+				</pre>
+
+				<!--
+				comment
+
+				still comment -->
+
+				<script>
+
+				var x = 1;
+				</script>
+
+				after
+				""";
+		String html = this.renderer.renderParallel(markdown);
+		assertThat(html).isEqualTo(this.renderer.renderSequential(markdown));
+		assertThat(html).doesNotContain("<p>b");
+	}
+
+	@Test
+	void renderParallelLongFence() {
+		String markdown = """
+				````
+				```
+
+				[docs]: https://example.com
+				```
+				````
+
+				[docs]
+				""";
+		assertThat(FlexmarkMarkdownRenderer.split(markdown)).hasSize(2);
+		assertThat(FlexmarkMarkdownRenderer.referenceDefinitions(markdown)).isEmpty();
+		assertThat(this.renderer.renderParallel(markdown)).isEqualTo(this.renderer.renderSequential(markdown));
+	}
+
+	@Test
+	void renderLargeDocument() {
+		String markdown = FlexmarkMarkdownRendererBenchmark.SECTION.repeat(1000)
+				+ "[docs]: https://docs.spring.io\n[^1]: https://spring.io\n";
+		assertThat(markdown.length()).isGreaterThan(FlexmarkMarkdownRenderer.PARALLEL_THRESHOLD);
+		assertThat(this.renderer.render(markdown)).isEqualTo(this.renderer.renderSequential(markdown));
+	}
+
+}
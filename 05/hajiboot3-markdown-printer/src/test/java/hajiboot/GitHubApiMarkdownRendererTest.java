@@ -0,0 +1,141 @@
+package hajiboot;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubApiMarkdownRendererTest {
+
+	HttpServer server;
+
+	AtomicInteger requests = new AtomicInteger();
+
+	CountDownLatch release = new CountDownLatch(0);
+
+	volatile String rateLimitRemaining;
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	GitHubRateLimiter rateLimiter;
+
+	GitHubApiMarkdownRenderer renderer;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		HttpHandler handler = exchange -> {
+			this.requests.incrementAndGet();
+			String markdown = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			try {
+				this.release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = (markdown.equals("error") ? "Bad Request" : "<p>" + markdown + "</p>")
+				.getBytes(StandardCharsets.UTF_8);
+			if (this.rateLimitRemaining != null) {
+				exchange.getResponseHeaders().add(GitHubRateLimiter.REMAINING, this.rateLimitRemaining);
+				exchange.getResponseHeaders()
+					.add(GitHubRateLimiter.RESET, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+			}
+			exchange.sendResponseHeaders(markdown.equals("error") ? 400 : 200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		};
+		this.server.createContext("/markdown/raw", handler);
+		this.server.createContext("/api/v3/markdown/raw", handler);
+		this.server.start();
+		URI apiUrl = URI.create("http://localhost:" + this.server.getAddress().getPort());
+		GitHubProperties props = new GitHubProperties(apiUrl, null,
+				new GitHubProperties.RateLimit(10, Duration.ofMillis(100)));
+		this.rateLimiter = new GitHubRateLimiter(props, this.meterRegistry);
+		this.renderer = new GitHubApiMarkdownRenderer(props, RestClient.builder(), this.rateLimiter);
+	}
+
+	@AfterEach
+	void stopStub() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void render() {
+		assertThat(this.renderer.render("Markdown!")).isEqualTo("<p>Markdown!</p>");
+		assertThat(this.renderer.renderAsync("Markdown!").join()).isEqualTo("<p>Markdown!</p>");
+		assertThat(this.requests).hasValue(2);
+	}
+
+	@Test
+	void renderWithApiPath() {
+		URI apiUrl = URI.create("http://localhost:" + this.server.getAddress().getPort() + "/api/v3");
+		GitHubProperties props = new GitHubProperties(apiUrl, null,
+				new GitHubProperties.RateLimit(10, Duration.ofMillis(100)));
+		GitHubApiMarkdownRenderer renderer = new GitHubApiMarkdownRenderer(props, RestClient.builder(),
+				new GitHubRateLimiter(props, this.meterRegistry));
+		assertThat(renderer.render("Markdown!")).isEqualTo("<p>Markdown!</p>");
+		assertThat(GitHubApiMarkdownRenderer.markdownUri(URI.create("https://github.example.com/api/v3/")))
+			.isEqualTo(URI.create("https://github.example.com/api/v3/markdown/raw"));
+		assertThat(GitHubApiMarkdownRenderer.markdownUri(URI.create("https://api.github.com")))
+			.isEqualTo(URI.create("https://api.github.com/markdown/raw"));
+	}
+
+	@Test
+	void coalesceConcurrentRenders() {
+		this.release = new CountDownLatch(1);
+		List<CompletableFuture<String>> futures = IntStream.range(0, 10)
+			.mapToObj(i -> this.renderer.renderAsync("Markdown!"))
+			.toList();
+		CompletableFuture<String> other = this.renderer.renderAsync("Other");
+		this.release.countDown();
+		assertThat(futures).allSatisfy(future -> assertThat(future.join()).isEqualTo("<p>Markdown!</p>"));
+		assertThat(other.join()).isEqualTo("<p>Other</p>");
+		assertThat(this.requests).hasValue(2);
+	}
+
+	@Test
+	void rateLimitExhausted() {
+		this.rateLimitRemaining = "1";
+		assertThat(this.renderer.render("a")).isEqualTo("<p>a</p>");
+		assertThat(this.rateLimiter.budget(null)).isEqualTo(1);
+		assertThat(this.meterRegistry.get("github.ratelimit.remaining").tag("bucket", "anonymous").gauge().value())
+			.isEqualTo(1);
+		this.rateLimitRemaining = "0";
+		assertThat(this.renderer.render("b")).isEqualTo("<p>b</p>");
+		assertThatThrownBy(() -> this.renderer.render("c")).isInstanceOf(RateLimitExceededException.class);
+		assertThatThrownBy(() -> this.renderer.renderAsync("c").join()).hasCauseInstanceOf(RateLimitExceededException.class);
+		assertThat(this.requests).hasValue(2);
+	}
+
+	@Test
+	void renderAsyncError() {
+		assertThatThrownBy(() -> this.renderer.renderAsync("error").join()).isInstanceOf(CompletionException.class)
+			.hasCauseInstanceOf(HttpClientErrorException.BadRequest.class);
+		assertThatThrownBy(() -> this.renderer.render("error")).isInstanceOf(HttpClientErrorException.BadRequest.class);
+	}
+
+}
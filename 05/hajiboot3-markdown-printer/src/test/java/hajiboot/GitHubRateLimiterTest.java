@@ -0,0 +1,78 @@
+package hajiboot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRateLimiterTest {
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	GitHubRateLimiter rateLimiter = new GitHubRateLimiter(
+			new GitHubProperties(null, null, new GitHubProperties.RateLimit(2, Duration.ofMillis(1500))),
+			this.meterRegistry);
+
+	@Test
+	void burstThenPace() {
+		rateLimit("token", 3600, Duration.ofHours(1)); // one permit per second
+		assertThat(this.rateLimiter.reserve("token")).isZero();
+		assertThat(this.rateLimiter.reserve("token")).isZero();
+		long delay = this.rateLimiter.reserve("token");
+		assertThat(delay).isBetween(TimeUnit.MILLISECONDS.toNanos(900), TimeUnit.MILLISECONDS.toNanos(1000));
+		// the next caller queues behind the previous one and exceeds max-wait
+		assertThatThrownBy(() -> this.rateLimiter.reserve("token")).isInstanceOf(RateLimitExceededException.class);
+	}
+
+	@Test
+	void exhaustedUntilReset() {
+		rateLimit("token", 0, Duration.ofMinutes(10));
+		assertThatThrownBy(() -> this.rateLimiter.reserve("token")).isInstanceOf(RateLimitExceededException.class);
+		rateLimit("token", 0, Duration.ofSeconds(1));
+		assertThat(this.rateLimiter.reserve("token")).isPositive();
+	}
+
+	@Test
+	void budgetNeverNegative() {
+		rateLimit("token", 0, Duration.ofSeconds(1));
+		assertThat(this.rateLimiter.reserve("token")).isPositive();
+		assertThat(this.rateLimiter.budget("token")).isZero();
+		assertThat(this.meterRegistry.get("github.ratelimit.remaining").gauge().value()).isZero();
+	}
+
+	@Test
+	void ignoreMalformedHeaders() {
+		rateLimit("token", 10, Duration.ofHours(1));
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(GitHubRateLimiter.REMAINING, "unknown");
+		headers.add(GitHubRateLimiter.RESET, "soon");
+		this.rateLimiter.update("token", headers);
+		assertThat(this.rateLimiter.budget("token")).isEqualTo(10);
+	}
+
+	@Test
+	void bucketPerAccessToken() {
+		rateLimit("token1", 0, Duration.ofMinutes(10));
+		assertThat(this.rateLimiter.reserve("token2")).isZero();
+		assertThat(this.rateLimiter.reserve(null)).isZero();
+		assertThat(this.rateLimiter.budget("token1")).isZero();
+		assertThat(this.rateLimiter.budget("token2")).isEqualTo(4999);
+		assertThat(this.rateLimiter.budget(null)).isEqualTo(59);
+		assertThat(this.meterRegistry.get("github.ratelimit.remaining").gauges()).hasSize(3);
+	}
+
+	void rateLimit(String accessToken, long remaining, Duration untilReset) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(GitHubRateLimiter.REMAINING, String.valueOf(remaining));
+		headers.add(GitHubRateLimiter.RESET, String.valueOf(Instant.now().plus(untilReset).getEpochSecond()));
+		this.rateLimiter.update(accessToken, headers);
+	}
+
+}
@@ -0,0 +1,65 @@
+package hajiboot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingMarkdownPrinterTest {
+
+	static final String MARKDOWN = """
+			# Title
+
+			Hello **Spring Boot**
+
+			```java
+			class Foo {
+
+			}
+			```
+
+			- a
+			  - b
+
+			      indented
+
+			Bye
+			""";
+
+	@Test
+	void nextBlock() throws Exception {
+		MarkdownBlockReader reader = new MarkdownBlockReader(new StringReader(MARKDOWN));
+		List<String> blocks = new ArrayList<>();
+		String block;
+		while ((block = reader.nextBlock()) != null) {
+			blocks.add(block);
+		}
+		assertThat(blocks).containsExactly("# Title\n\n", "Hello **Spring Boot**\n\n",
+				"```java\nclass Foo {\n\n}\n```\n\n", "- a\n  - b\n\n      indented\n\n", "Bye\n");
+	}
+
+	@Test
+	void print() {
+		StreamingMarkdownPrinter printer = new StreamingMarkdownPrinter(new FlexmarkMarkdownRenderer());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		printer.print(new ByteArrayInputStream(MARKDOWN.getBytes(StandardCharsets.UTF_8)), out);
+		assertThat(out.toString(StandardCharsets.UTF_8))
+			.isEqualTo("Input markdown: " + new FlexmarkMarkdownRenderer().render(MARKDOWN));
+	}
+
+	@Test
+	void bypassCache() {
+		CachingMarkdownRenderer cachingRenderer = new CachingMarkdownRenderer(new FlexmarkMarkdownRenderer(),
+				new MarkdownCacheProperties(true, 1000, null, null));
+		StreamingMarkdownPrinter printer = new StreamingMarkdownPrinter(cachingRenderer);
+		printer.print(new ByteArrayInputStream(MARKDOWN.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
+		assertThat(cachingRenderer.stats().requestCount()).isZero();
+	}
+
+}
@@ -0,0 +1,92 @@
+package hajiboot.entry;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcOperations;
+
+/**
+ * Inserts entries with multi-row {@code INSERT ... VALUES (...), (...)} statements of
+ * {@code chunkSize} rows, so that {@code n} entries cost {@code n / chunkSize} statement
+ * executions instead of {@code n}. Full chunks share one prepared statement and are sent
+ * as a single JDBC batch; the remainder goes in one more statement. Both run through
+ * {@link JdbcOperations}, so the template's statement settings such as the query timeout
+ * apply. Tags are bound as a {@code String[]}.
+ */
+class EntryBatchWriter {
+	// PostgreSQL's limit on bind parameters per statement
+	static final int MAX_PARAMETERS = 65_535;
+
+	private final String head;
+
+	private final String row;
+
+	private final int columns;
+
+	/**
+	 * @param sql a single-row {@code INSERT ... VALUES (...)} statement
+	 */
+	EntryBatchWriter(String sql) {
+		final int values = sql.lastIndexOf("VALUES") + "VALUES".length();
+		this.head = sql.substring(0, values);
+		this.row = sql.substring(values).trim();
+		this.columns = (int) this.row.chars().filter(c -> c == '?').count();
+	}
+
+	int maxChunkSize() {
+		return MAX_PARAMETERS / this.columns;
+	}
+
+	String sql(int rows) {
+		final StringBuilder sql = new StringBuilder(this.head.length() + rows * (this.row.length() + 2)).append(this.head);
+		for (int i = 0; i < rows; i++) {
+			sql.append(i == 0 ? " " : ", ").append(this.row);
+		}
+		return sql.toString();
+	}
+
+	int insertAll(JdbcOperations jdbcOperations, List<Entry> entries, int chunkSize) {
+		if (chunkSize < 1 || chunkSize > maxChunkSize()) {
+			throw new IllegalArgumentException("chunkSize must be between 1 and " + maxChunkSize() + ": " + chunkSize);
+		}
+		final int fullChunks = entries.size() / chunkSize;
+		final int remainder = entries.size() % chunkSize;
+		int inserted = 0;
+		if (fullChunks > 0) {
+			final int[] counts = jdbcOperations.batchUpdate(sql(chunkSize), new BatchPreparedStatementSetter() {
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					bind(ps, entries.subList(i * chunkSize, (i + 1) * chunkSize));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return fullChunks;
+				}
+			});
+			inserted += Arrays.stream(counts).sum();
+		}
+		if (remainder > 0) {
+			inserted += jdbcOperations.update(sql(remainder),
+					ps -> bind(ps, entries.subList(fullChunks * chunkSize, entries.size())));
+		}
+		return inserted;
+	}
+
+	private static void bind(PreparedStatement ps, List<Entry> chunk) throws SQLException {
+		int index = 1;
+		for (Entry entry : chunk) {
+			ps.setObject(index++, entry.entryId());
+			ps.setString(index++, entry.title());
+			ps.setString(index++, entry.content());
+			ps.setObject(index++, entry.tags().stream().map(Tag::name).toArray(String[]::new));
+			ps.setString(index++, entry.created().name());
+			ps.setTimestamp(index++, entry.created().toTimestamp());
+			ps.setString(index++, entry.lastModified().name());
+			ps.setTimestamp(index++, entry.lastModified().toTimestamp());
+		}
+	}
+}
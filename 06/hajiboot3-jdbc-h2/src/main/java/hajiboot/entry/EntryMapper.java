@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import hajiboot.util.FileLoader;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -18,8 +19,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class EntryMapper {
 	private final JdbcTemplate jdbcTemplate;
 
-	public EntryMapper(JdbcTemplate jdbcTemplate) {
+	private final int insertChunkSize;
+
+	public EntryMapper(JdbcTemplate jdbcTemplate, @Value("${entry.insert.chunk-size:100}") int insertChunkSize) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.insertChunkSize = insertChunkSize;
 	}
 
 	private final RowMapper<Entry> rowMapper = (rs, rowNum) -> {
@@ -82,12 +86,18 @@ public class EntryMapper {
 
 	@Transactional
 	public int insertAll(List<Entry> entries) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/insert.sql");
-		final int[] updated = this.jdbcTemplate.batchUpdate(sql, entries.stream()
-				.map(entry -> new Object[] { entry.entryId(), entry.title(), entry.content(),
-						entry.tags().stream().map(Tag::name).toArray(), entry.created().name(), entry.created().toTimestamp(),
-						entry.lastModified().name(), entry.lastModified().toTimestamp() })
-				.toList());
-		return Arrays.stream(updated).sum();
+		return this.insertAll(entries, this.insertChunkSize);
+	}
+
+	/**
+	 * Inserts entries with multi-row {@code INSERT} statements of {@code chunkSize}
+	 * rows each.
+	 * @see EntryBatchWriter
+	 */
+	@Transactional
+	public int insertAll(List<Entry> entries, int chunkSize) {
+		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/insertAll.sql");
+		final EntryBatchWriter writer = new EntryBatchWriter(sql);
+		return writer.insertAll(this.jdbcTemplate, entries, chunkSize);
 	}
 }
\ No newline at end of file
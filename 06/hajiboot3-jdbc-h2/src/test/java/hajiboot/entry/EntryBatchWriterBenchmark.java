@@ -0,0 +1,82 @@
+package hajiboot.entry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Measures {@link EntryMapper#insertAll(List, int)} against an in-memory H2 database
+ * across chunk sizes, reporting rows/s. A chunk size of 1 is the plain JDBC batch of
+ * single-row inserts. Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=hajiboot.entry.EntryBatchWriterBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntryBatchWriterBenchmark {
+	static final int ROWS = 10_000;
+
+	@Param({ "1", "10", "100", "1000" })
+	int chunkSize;
+
+	JdbcTemplate jdbcTemplate;
+
+	EntryMapper entryMapper;
+
+	List<Entry> entries;
+
+	@Setup
+	public void setup() {
+		final DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.entryMapper = new EntryMapper(this.jdbcTemplate, this.chunkSize);
+		this.entries = new ArrayList<>(ROWS);
+		for (int i = 1; i <= ROWS; i++) {
+			final UpdateMeta updateMeta = new UpdateMeta("admin", Instant.parse("2023-02-10T00:00:00Z").plusSeconds(i));
+			this.entries.add(new Entry(i, "Title " + i, "Content " + i,
+					Set.of(new Tag("java"), new Tag("spring"), new Tag("tag " + (i % 10))), updateMeta, updateMeta));
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void truncate() {
+		this.jdbcTemplate.execute("TRUNCATE TABLE entry");
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int insertAll() {
+		return this.entryMapper.insertAll(this.entries);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(EntryBatchWriterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,64 @@
+package hajiboot.entry;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EntryBatchWriterTest {
+	@Test
+	void sql() {
+		final EntryBatchWriter writer = new EntryBatchWriter("INSERT INTO t(a, b)\nVALUES (?, ?)");
+		assertThat(writer.sql(1)).isEqualTo("INSERT INTO t(a, b)\nVALUES (?, ?)");
+		assertThat(writer.sql(3)).isEqualTo("INSERT INTO t(a, b)\nVALUES (?, ?), (?, ?), (?, ?)");
+		assertThat(writer.maxChunkSize()).isEqualTo(32_767);
+	}
+
+	@Test
+	void insertAllAppliesStatementSettings() throws Exception {
+		final DataSource dataSource = mock(DataSource.class);
+		final Connection connection = mock(Connection.class);
+		final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		final PreparedStatement chunkStatement = mock(PreparedStatement.class);
+		final PreparedStatement remainderStatement = mock(PreparedStatement.class);
+		final EntryBatchWriter writer = new EntryBatchWriter("""
+				INSERT INTO entry(entry_id, title, content, tags, created_by, created_date, last_modified_by, last_modified_date)
+				VALUES (?, ?, ?, ?, ?, ?, ?, ?)""");
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.getMetaData()).willReturn(metaData);
+		given(metaData.supportsBatchUpdates()).willReturn(true);
+		given(connection.prepareStatement(writer.sql(2))).willReturn(chunkStatement);
+		given(connection.prepareStatement(writer.sql(1))).willReturn(remainderStatement);
+		given(chunkStatement.getConnection()).willReturn(connection);
+		given(chunkStatement.executeBatch()).willReturn(new int[] { 2, 2 });
+		given(remainderStatement.executeUpdate()).willReturn(1);
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setQueryTimeout(10);
+		final UpdateMeta updateMeta = new UpdateMeta("admin", Instant.parse("2023-02-10T00:00:00Z"));
+		final List<Entry> entries = IntStream.rangeClosed(1, 5)
+				.mapToObj(i -> new Entry(i, "Title " + i, "Content " + i, Set.of(new Tag("java")), updateMeta, updateMeta))
+				.toList();
+
+		assertThat(writer.insertAll(jdbcTemplate, entries, 2)).isEqualTo(5);
+		verify(chunkStatement).setQueryTimeout(10);
+		verify(chunkStatement, times(2)).addBatch();
+		verify(chunkStatement, times(2)).setObject(4, new String[] { "java" });
+		verify(remainderStatement).setQueryTimeout(10);
+		verify(remainderStatement).setObject(1, 5);
+	}
+}
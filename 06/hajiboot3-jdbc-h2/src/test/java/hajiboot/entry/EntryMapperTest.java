@@ -1,6 +1,8 @@
 package hajiboot.entry;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -12,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest(properties = { "logging.level.sql=DEBUG", "logging.level.org.springframework.jdbc.support.JdbcTransactionManager=DEBUG" })
 @Import(EntryMapper.class)
@@ -97,4 +100,23 @@ class EntryMapperTest {
 		assertThat(this.entryMapper.findByTag(new Tag("c")))
 				.containsExactly(entry3.withContent(""), entry2.withContent(""));
 	}
-}
\ No newline at end of file
+
+	@Test
+	void insertAllInChunks() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		for (int chunkSize : new int[] { 1, 2, 3, 5, 8 }) {
+			List<Entry> entries = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				entries.add(new Entry(this.entryMapper.nextEntryId(), "title " + i, "content " + i,
+						Set.of(new Tag("a,b"), new Tag("c " + i)), new UpdateMeta("test", now),
+						new UpdateMeta("test", now.plusSeconds(i))));
+			}
+			int inserted = this.entryMapper.insertAll(entries, chunkSize);
+			assertThat(inserted).isEqualTo(5);
+			for (Entry entry : entries) {
+				assertThat(this.entryMapper.findOne(entry.entryId())).contains(entry);
+			}
+		}
+		assertThatThrownBy(() -> this.entryMapper.insertAll(List.of(), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
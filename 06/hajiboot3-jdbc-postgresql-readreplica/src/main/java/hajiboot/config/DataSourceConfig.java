@@ -1,19 +1,37 @@
 package hajiboot.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.sql.DataSource;
 
 import com.zaxxer.hikari.HikariDataSource;
+import hajiboot.datasource.HikariPoolAutotuner;
+import hajiboot.datasource.HikariPoolAutotunerRegistrar;
 import hajiboot.datasource.ReadOnlyTransactionRoutingDataSource.DataSourceType;
 import hajiboot.datasource.ReadOnlyTransactionRoutingDataSource;
+import hajiboot.datasource.ReadReplicaLoadBalancingDataSource;
+import hajiboot.datasource.ReadWriteInferringJdbcTemplate;
+import hajiboot.datasource.ReplicationLagMonitor;
+import hajiboot.datasource.RouteReport;
+import hajiboot.datasource.RoutesEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 @Configuration
@@ -24,6 +42,11 @@ public class DataSourceConfig {
 		return new DataSourceProperties();
 	}
 
+	/**
+	 * Registered with the {@link HikariPoolAutotuner} by
+	 * {@link #hikariPoolAutotunerRegistrar(ObjectProvider)} once
+	 * {@code spring.datasource.hikari.*} is bound.
+	 */
 	@Bean
 	@ConfigurationProperties("spring.datasource.hikari")
 	public HikariDataSource readWriteDataSource(@Qualifier("readWriteDataSourceProperties") DataSourceProperties properties) {
@@ -35,32 +58,105 @@ public class DataSourceConfig {
 	}
 
 	@Bean
-	@ConfigurationProperties("read-only.datasource")
-	public DataSourceProperties readOnlyDataSourceProperties() {
-		return new DataSourceProperties();
+	public static HikariPoolAutotunerRegistrar hikariPoolAutotunerRegistrar(
+			ObjectProvider<HikariPoolAutotuner> hikariPoolAutotuner) {
+		return new HikariPoolAutotunerRegistrar(hikariPoolAutotuner);
+	}
+
+	/**
+	 * Sizes every pool within {@code [pool-autotune.min-size, pool-autotune.max-size]}.
+	 * Meters are only published when a {@link MeterRegistry} is available, which is not the
+	 * case in slice tests such as {@code @JdbcTest}.
+	 */
+	@Bean(initMethod = "start")
+	public HikariPoolAutotuner hikariPoolAutotuner(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${pool-autotune.min-size:2}") int minSize,
+			@Value("${pool-autotune.max-size:20}") int maxSize,
+			@Value("${pool-autotune.acquire-latency-threshold:20ms}") Duration acquireLatencyThreshold,
+			@Value("${pool-autotune.headroom:0.2}") double headroom,
+			@Value("${pool-autotune.interval:10s}") Duration interval) {
+		return new HikariPoolAutotuner(meterRegistry.getIfAvailable(), minSize, maxSize, acquireLatencyThreshold, headroom, interval);
 	}
 
+	/**
+	 * One pool per {@code read-only.datasource[n]}, each with its own
+	 * {@code read-only.datasource[n].hikari.*} settings.
+	 */
 	@Bean
-	@ConfigurationProperties("read-only.datasource.hikari")
-	public HikariDataSource readOnlyDataSource(@Qualifier("readOnlyDataSourceProperties") DataSourceProperties properties) {
-		HikariDataSource dataSource = properties.initializeDataSourceBuilder()
-				.type(HikariDataSource.class)
-				.build();
-		dataSource.setReadOnly(true);
-		dataSource.setPoolName("read-only-pool");
-		return dataSource;
+	public ReadReplicaLoadBalancingDataSource readOnlyDataSource(Environment environment,
+			@Qualifier("readWriteDataSource") DataSource readWriteDataSource, HikariPoolAutotuner hikariPoolAutotuner,
+			@Value("${read-only.eject-duration:10s}") Duration ejectDuration,
+			@Value("${read-only.max-eject-duration:5m}") Duration maxEjectDuration) {
+		Binder binder = Binder.get(environment);
+		List<DataSourceProperties> replicaProperties = binder
+				.bind("read-only.datasource", Bindable.listOf(DataSourceProperties.class))
+				.orElseThrow(() -> new IllegalStateException("No read-only.datasource[n] is configured"));
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (int i = 0; i < replicaProperties.size(); i++) {
+			HikariDataSource dataSource = replicaProperties.get(i).initializeDataSourceBuilder()
+					.type(HikariDataSource.class)
+					.build();
+			binder.bind("read-only.datasource[%d].hikari".formatted(i), Bindable.ofInstance(dataSource));
+			dataSource.setReadOnly(true);
+			dataSource.setPoolName("read-only-pool-%d".formatted(i));
+			hikariPoolAutotuner.register(dataSource);
+			replicas.add(dataSource);
+		}
+		return new ReadReplicaLoadBalancingDataSource(replicas, readWriteDataSource, ejectDuration, maxEjectDuration);
+	}
+
+	@Bean(initMethod = "start")
+	public ReplicationLagMonitor replicationLagMonitor(ReadReplicaLoadBalancingDataSource readOnlyDataSource,
+			@Value("${read-only.max-lag:1s}") Duration maxLag,
+			@Value("${read-only.lag-sample-interval:500ms}") Duration interval) {
+		ReplicationLagMonitor monitor = new ReplicationLagMonitor(readOnlyDataSource.replicas(), maxLag, interval);
+		readOnlyDataSource.setReplicaFilter(monitor::isEligible);
+		return monitor;
 	}
 
 	@Bean
-	@Primary
-	public DataSource actualDataSource(
+	public RouteReport routeReport() {
+		return new RouteReport();
+	}
+
+	@Bean
+	public RoutesEndpoint routesEndpoint(RouteReport routeReport) {
+		return new RoutesEndpoint(routeReport);
+	}
+
+	@Bean
+	public ReadOnlyTransactionRoutingDataSource routingDataSource(
 			@Qualifier("readWriteDataSource") DataSource readWriteDataSource,
-			@Qualifier("readOnlyDataSource") DataSource readOnlyDataSource) {
+			ReadReplicaLoadBalancingDataSource readOnlyDataSource, RouteReport routeReport) {
 		ReadOnlyTransactionRoutingDataSource routingDataSource = new ReadOnlyTransactionRoutingDataSource(true);
+		routingDataSource.setTrackCommitLsn(true);
+		routingDataSource.setRouteReport(routeReport);
+		readOnlyDataSource.setRouteReport(routeReport);
 		routingDataSource.setTargetDataSources(Map.of(
 				DataSourceType.READ_ONLY, readOnlyDataSource,
 				DataSourceType.READ_WRITE, readWriteDataSource));
-		routingDataSource.afterPropertiesSet();
+		return routingDataSource;
+	}
+
+	@Bean
+	@Primary
+	public DataSource actualDataSource(ReadOnlyTransactionRoutingDataSource routingDataSource) {
 		return new LazyConnectionDataSourceProxy(routingDataSource);
 	}
+
+	/**
+	 * Lets queries outside a transaction reach the read replicas.
+	 * @see ReadWriteInferringJdbcTemplate
+	 */
+	@Bean
+	public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+		JdbcTemplate jdbcTemplate = new ReadWriteInferringJdbcTemplate(dataSource);
+		JdbcProperties.Template template = properties.getTemplate();
+		jdbcTemplate.setFetchSize(template.getFetchSize());
+		jdbcTemplate.setMaxRows(template.getMaxRows());
+		if (template.getQueryTimeout() != null) {
+			jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+		}
+		return jdbcTemplate;
+	}
 }
@@ -0,0 +1,303 @@
+package hajiboot.datasource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Resizes registered Hikari pools at runtime. Every {@code interval} it samples, per pool,
+ * the threads waiting for a connection, the connection acquire latency and the time
+ * connections were in use, and recommends a maximum pool size from the average number of
+ * connections in use (Little's law) plus the waiting threads and some headroom. A
+ * saturated pool (waiting threads, acquire timeouts or slow acquisition) grows at once; an
+ * over-provisioned one shrinks one connection per interval. Sizes stay within
+ * {@code [minSize, maxSize]} and are applied through the {@link HikariConfigMXBean}.
+ * <p>
+ * The samples come from the {@link IMetricsTracker} this factory installs on each pool;
+ * the usual {@code hikaricp.*} meters are still published. The recommended sizes and
+ * saturation events are published as {@code datasource.pool.*} meters. Without a
+ * {@link MeterRegistry} the pools are still tuned, but no meters are published.
+ */
+public class HikariPoolAutotuner implements MetricsTrackerFactory, AutoCloseable {
+	private final Logger log = LoggerFactory.getLogger(HikariPoolAutotuner.class);
+
+	private final MeterRegistry meterRegistry;
+
+	private final MetricsTrackerFactory delegate;
+
+	private final int minSize;
+
+	private final int maxSize;
+
+	private final Duration acquireLatencyThreshold;
+
+	private final double headroom;
+
+	private final Duration interval;
+
+	private final List<Pool> pools = new CopyOnWriteArrayList<>();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param meterRegistry where to publish meters, or {@code null} for none
+	 */
+	public HikariPoolAutotuner(@Nullable MeterRegistry meterRegistry, int minSize, int maxSize,
+			Duration acquireLatencyThreshold, double headroom, Duration interval) {
+		if (minSize < 1 || maxSize < minSize) {
+			throw new IllegalArgumentException("Invalid pool size bounds [%d, %d]".formatted(minSize, maxSize));
+		}
+		this.meterRegistry = meterRegistry;
+		if (meterRegistry != null) {
+			this.delegate = new MicrometerMetricsTrackerFactory(meterRegistry);
+		}
+		else {
+			// every IMetricsTracker method is a no-op by default
+			this.delegate = (poolName, poolStats) -> new IMetricsTracker() {
+			};
+		}
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.acquireLatencyThreshold = acquireLatencyThreshold;
+		this.headroom = headroom;
+		this.interval = interval;
+	}
+
+	/**
+	 * Must be called once the pool name and maximum pool size are set, and before the pool
+	 * starts, i.e. before its first connection.
+	 * @see HikariPoolAutotunerRegistrar
+	 */
+	public void register(HikariDataSource dataSource) {
+		dataSource.setMetricsTrackerFactory(this);
+		final Pool pool = new Pool(dataSource);
+		if (this.meterRegistry != null) {
+			Gauge.builder("datasource.pool.recommended.size", pool, p -> p.recommended)
+					.tag("pool", dataSource.getPoolName())
+					.description("Maximum pool size recommended by the last sample")
+					.register(this.meterRegistry);
+		}
+		this.pools.add(pool);
+	}
+
+	public void start() {
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "hikari-pool-autotuner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::tuneAll, this.interval.toMillis(), this.interval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void close() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+		}
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		final IMetricsTracker tracker = this.delegate.create(poolName, poolStats);
+		final Optional<Pool> pool = this.pools.stream()
+				.filter(p -> poolName.equals(p.dataSource.getPoolName()))
+				.findFirst();
+		return pool.<IMetricsTracker>map(p -> new SamplingTracker(p, tracker)).orElse(tracker);
+	}
+
+	void tuneAll() {
+		for (Pool pool : this.pools) {
+			try {
+				tune(pool);
+			}
+			catch (RuntimeException e) {
+				log.warn("Failed to tune {}: {}", pool.dataSource.getPoolName(), e.toString());
+			}
+		}
+	}
+
+	void tune(Pool pool) {
+		final HikariPoolMXBean poolMXBean = pool.dataSource.getHikariPoolMXBean();
+		if (poolMXBean == null) {
+			return; // not started yet
+		}
+		final Usage usage = pool.drain(poolMXBean);
+		final HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+		final Sizing sizing = size(config.getMaximumPoolSize(), usage);
+		pool.recommended = sizing.recommended();
+		final String poolName = pool.dataSource.getPoolName();
+		if (sizing.saturated() && this.meterRegistry != null) {
+			Counter.builder("datasource.pool.saturation")
+					.tag("pool", poolName)
+					.description("Samples in which threads waited for, or timed out acquiring, a connection")
+					.register(this.meterRegistry)
+					.increment();
+		}
+		if (sizing.saturated() != pool.saturated) {
+			pool.saturated = sizing.saturated();
+			if (sizing.saturated()) {
+				log.warn("{} is saturated: {}", poolName, usage);
+			}
+			else {
+				log.info("{} is no longer saturated: {}", poolName, usage);
+			}
+		}
+		final int maximumPoolSize = config.getMaximumPoolSize();
+		if (sizing.maximumPoolSize() != maximumPoolSize) {
+			// keep minimumIdle <= maximumPoolSize at every step
+			if (sizing.maximumPoolSize() > maximumPoolSize) {
+				config.setMaximumPoolSize(sizing.maximumPoolSize());
+				config.setMinimumIdle(sizing.minimumIdle());
+			}
+			else {
+				config.setMinimumIdle(sizing.minimumIdle());
+				config.setMaximumPoolSize(sizing.maximumPoolSize());
+			}
+			if (this.meterRegistry != null) {
+				Counter.builder("datasource.pool.resize")
+						.tag("pool", poolName)
+						.tag("direction", sizing.maximumPoolSize() > maximumPoolSize ? "grow" : "shrink")
+						.register(this.meterRegistry)
+						.increment();
+			}
+			log.info("Resize {} from {} to {} (minimumIdle={})", poolName, maximumPoolSize, sizing.maximumPoolSize(),
+					sizing.minimumIdle());
+		}
+		else if (sizing.minimumIdle() != config.getMinimumIdle()) {
+			config.setMinimumIdle(sizing.minimumIdle());
+		}
+	}
+
+	Sizing size(int maximumPoolSize, Usage usage) {
+		final boolean saturated = usage.pending() > 0 || usage.timeouts() > 0
+				|| usage.averageAcquireTime().compareTo(this.acquireLatencyThreshold) > 0;
+		// average number of connections in use over the sample; usage is only recorded on close,
+		// so connections still held count as in use
+		final double inUse = Math.max(usage.inUse(), usage.active());
+		final int demand = (int) Math.ceil(inUse);
+		final int recommended = clamp((int) Math.ceil((inUse + usage.pending()) * (1 + this.headroom)));
+		final int target;
+		if (saturated) {
+			target = clamp(Math.max(recommended, maximumPoolSize + Math.max(1, usage.pending())));
+		}
+		else if (recommended < maximumPoolSize) {
+			target = clamp(maximumPoolSize - 1);
+		}
+		else {
+			target = clamp(maximumPoolSize);
+		}
+		return new Sizing(recommended, target, Math.min(target, Math.max(this.minSize, demand)), saturated);
+	}
+
+	private int clamp(int size) {
+		return Math.max(this.minSize, Math.min(this.maxSize, size));
+	}
+
+	/**
+	 * What a pool did since the previous sample.
+	 * @param pending threads waiting for a connection at the time of the sample
+	 * @param active connections in use at the time of the sample
+	 * @param acquisitions connections handed out
+	 * @param acquireNanos total time threads spent acquiring them
+	 * @param usageMillis total time connections returned to the pool were in use
+	 * @param timeouts acquisitions that timed out
+	 * @param elapsedMillis length of the sample
+	 */
+	record Usage(int pending, int active, long acquisitions, long acquireNanos, long usageMillis, long timeouts,
+			long elapsedMillis) {
+		Duration averageAcquireTime() {
+			return (this.acquisitions == 0) ? Duration.ZERO : Duration.ofNanos(this.acquireNanos / this.acquisitions);
+		}
+
+		double inUse() {
+			return (this.elapsedMillis == 0) ? 0 : (double) this.usageMillis / this.elapsedMillis;
+		}
+	}
+
+	record Sizing(int recommended, int maximumPoolSize, int minimumIdle, boolean saturated) {
+	}
+
+	static class Pool {
+		final HikariDataSource dataSource;
+
+		final LongAdder acquisitions = new LongAdder();
+
+		final LongAdder acquireNanos = new LongAdder();
+
+		final LongAdder usageMillis = new LongAdder();
+
+		final LongAdder timeouts = new LongAdder();
+
+		long sampledAt = System.nanoTime();
+
+		volatile int recommended;
+
+		boolean saturated;
+
+		Pool(HikariDataSource dataSource) {
+			this.dataSource = dataSource;
+			this.recommended = dataSource.getMaximumPoolSize();
+		}
+
+		Usage drain(HikariPoolMXBean poolMXBean) {
+			final long now = System.nanoTime();
+			final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - this.sampledAt);
+			this.sampledAt = now;
+			return new Usage(poolMXBean.getThreadsAwaitingConnection(), poolMXBean.getActiveConnections(),
+					this.acquisitions.sumThenReset(), this.acquireNanos.sumThenReset(),
+					this.usageMillis.sumThenReset(), this.timeouts.sumThenReset(), elapsedMillis);
+		}
+	}
+
+	private record SamplingTracker(Pool pool, IMetricsTracker delegate) implements IMetricsTracker {
+		@Override
+		public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+			this.delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			this.pool.acquisitions.increment();
+			this.pool.acquireNanos.add(elapsedAcquiredNanos);
+			this.delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			this.pool.usageMillis.add(elapsedBorrowedMillis);
+			this.delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			this.pool.timeouts.increment();
+			this.delegate.recordConnectionTimeout();
+		}
+
+		@Override
+		public void close() {
+			this.delegate.close();
+		}
+	}
+}
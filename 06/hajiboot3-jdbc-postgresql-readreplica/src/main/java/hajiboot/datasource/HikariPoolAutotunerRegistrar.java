@@ -0,0 +1,28 @@
+package hajiboot.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Registers every {@link HikariDataSource} bean with the {@link HikariPoolAutotuner}
+ * after its initialization, i.e. once its {@code @ConfigurationProperties} are bound and
+ * before its pool starts, so that the autotuner sees the configured pool name and
+ * maximum pool size.
+ */
+public class HikariPoolAutotunerRegistrar implements BeanPostProcessor {
+	private final ObjectProvider<HikariPoolAutotuner> hikariPoolAutotuner;
+
+	public HikariPoolAutotunerRegistrar(ObjectProvider<HikariPoolAutotuner> hikariPoolAutotuner) {
+		this.hikariPoolAutotuner = hikariPoolAutotuner;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof HikariDataSource dataSource) {
+			this.hikariPoolAutotuner.getObject().register(dataSource);
+		}
+		return bean;
+	}
+}
@@ -0,0 +1,25 @@
+package hajiboot.datasource;
+
+/**
+ * A PostgreSQL WAL location such as {@code 16/B374D848}.
+ */
+public record Lsn(long value) implements Comparable<Lsn> {
+	public static Lsn parse(String text) {
+		final int slash = text.indexOf('/');
+		if (slash < 0) {
+			throw new IllegalArgumentException("Invalid LSN: " + text);
+		}
+		return new Lsn(Long.parseLong(text.substring(0, slash), 16) << 32
+				| Long.parseLong(text.substring(slash + 1), 16));
+	}
+
+	@Override
+	public int compareTo(Lsn other) {
+		return Long.compareUnsigned(this.value, other.value);
+	}
+
+	@Override
+	public String toString() {
+		return "%X/%X".formatted(this.value >>> 32, this.value & 0xFFFFFFFFL);
+	}
+}
@@ -1,15 +1,37 @@
 package hajiboot.datasource;
 
-import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-public class ReadOnlyTransactionRoutingDataSource extends AbstractRoutingDataSource {
+public class ReadOnlyTransactionRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+	private final Logger log = LoggerFactory.getLogger(ReadOnlyTransactionRoutingDataSource.class);
+
 	private final boolean debug;
 
+	private boolean trackCommitLsn = false;
+
+	private RouteReport routeReport;
+
+	private final Map<DataSourceType, RouteStats> routeStats = new EnumMap<>(Map.of(
+			DataSourceType.READ_ONLY, new RouteStats(),
+			DataSourceType.READ_WRITE, new RouteStats()));
+
 	public enum DataSourceType {
 		READ_ONLY, READ_WRITE
 	}
@@ -18,28 +40,108 @@ public class ReadOnlyTransactionRoutingDataSource extends AbstractRoutingDataSou
 		this.debug = debug;
 	}
 
+	/**
+	 * Whether to record the commit LSN of read-write transactions in
+	 * {@link ReadYourWrites}, so that subsequent reads avoid replicas that have not
+	 * replayed it yet.
+	 */
+	public void setTrackCommitLsn(boolean trackCommitLsn) {
+		this.trackCommitLsn = trackCommitLsn;
+	}
+
+	public void setRouteReport(RouteReport routeReport) {
+		this.routeReport = routeReport;
+	}
+
+	/**
+	 * Read-only transactions go to {@code READ_ONLY}. Outside an actual transaction, so
+	 * do statements that {@link ReadWriteInference} classifies as reads.
+	 */
 	@Override
 	protected Object determineCurrentLookupKey() {
-		return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ?
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return DataSourceType.READ_ONLY;
+		}
+		return !TransactionSynchronizationManager.isActualTransactionActive() && ReadWriteInference.isRead() ?
 				DataSourceType.READ_ONLY :
 				DataSourceType.READ_WRITE;
 	}
 
+	/**
+	 * Resolves the route once, counts the acquisition and its latency in the route's
+	 * {@link RouteStats}, and, when {@code debug} is enabled, returns a
+	 * {@link RoutedConnection} that is tagged with the route and counts statements.
+	 */
 	@Override
 	public Connection getConnection() throws SQLException {
-		Connection connection = super.getConnection();
-		if (!debug) {
-			return connection;
+		return getConnection(DataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getConnection(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	private Connection getConnection(ConnectionSupplier supplier) throws SQLException {
+		DataSourceType lookupKey = (DataSourceType) determineCurrentLookupKey();
+		DataSource dataSource = getResolvedDataSources().get(lookupKey);
+		if (dataSource == null) {
+			throw new IllegalStateException("Cannot determine target DataSource for lookup key [" + lookupKey + "]");
+		}
+		RouteStats stats = this.routeStats.get(lookupKey);
+		long begin = System.nanoTime();
+		Connection connection = supplier.get(dataSource);
+		stats.acquired(System.nanoTime() - begin);
+		if (this.routeReport != null && !(dataSource instanceof ReadReplicaLoadBalancingDataSource)) {
+			this.routeReport.served(dataSource); // the load balancer reports the replica it chose
+		}
+		if (this.trackCommitLsn && lookupKey == DataSourceType.READ_WRITE
+				&& TransactionSynchronizationManager.isSynchronizationActive()
+				&& TransactionSynchronizationManager.isActualTransactionActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new CommitLsnSynchronization(connection));
+		}
+		return this.debug ? new RoutedConnection(connection, lookupKey, stats) : connection;
+	}
+
+	public RouteStats routeStats(DataSourceType dataSourceType) {
+		return this.routeStats.get(dataSourceType);
+	}
+
+	/**
+	 * Publishes the {@link RouteStats} of each route, tagged with {@code route}.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.routeStats.forEach((route, stats) -> stats.bindTo(registry, Tags.of("route", route.name())));
+	}
+
+	@FunctionalInterface
+	private interface ConnectionSupplier {
+		Connection get(DataSource dataSource) throws SQLException;
+	}
+
+	/**
+	 * Reads {@code pg_current_wal_lsn()} on the transaction's own connection once it has
+	 * committed, which is at or after the commit record.
+	 */
+	private class CommitLsnSynchronization implements TransactionSynchronization {
+		private final Connection connection;
+
+		CommitLsnSynchronization(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public void afterCommit() {
+			try (Statement statement = this.connection.createStatement();
+				 ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+				if (rs.next()) {
+					ReadYourWrites.committed(Lsn.parse(rs.getString(1)));
+				}
+			}
+			catch (SQLException | RuntimeException e) {
+				log.warn("Failed to read commit LSN: {}", e.toString());
+			}
 		}
-		Object lookupKey = determineCurrentLookupKey();
-		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
-				new Class[] { Connection.class },
-				(proxy, method, args) -> {
-					Object result = method.invoke(connection, args);
-					if ("toString".equals(method.getName())) {
-						return "<<%s>> %s".formatted(lookupKey, result);
-					}
-					return result;
-				});
 	}
 }
@@ -0,0 +1,231 @@
+package hajiboot.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Spreads connections over read replicas by "power of two choices": two healthy
+ * replicas are picked at random and the one with fewer outstanding connections (active
+ * plus threads waiting in the pool) wins. A replica that cannot be connected to (SQLState
+ * class {@code 08}) is ejected for {@code ejectDuration}, doubled on every consecutive
+ * failure up to {@code maxEjectDuration}, and re-admitted on probation once that time has
+ * passed; the next successful connection resets it. A replica whose pool merely timed out
+ * waiting for a free connection is busy rather than down, so the next one is tried without
+ * ejecting it. When every replica is ejected, busy or rejected by
+ * the {@link #setReplicaFilter(Predicate) replica filter}, connections come from the
+ * fallback (the primary). Closing this data source closes the replicas but not
+ * the fallback.
+ */
+public class ReadReplicaLoadBalancingDataSource extends AbstractDataSource implements AutoCloseable {
+	private final Logger log = LoggerFactory.getLogger(ReadReplicaLoadBalancingDataSource.class);
+
+	private final List<Replica> replicas;
+
+	private final DataSource fallback;
+
+	private final ToIntFunction<DataSource> load;
+
+	private final long ejectNanos;
+
+	private final long maxEjectNanos;
+
+	private final LongSupplier nanoTime;
+
+	private volatile Predicate<DataSource> replicaFilter = replica -> true;
+
+	private RouteReport routeReport;
+
+	public ReadReplicaLoadBalancingDataSource(List<? extends DataSource> replicas, DataSource fallback,
+			Duration ejectDuration, Duration maxEjectDuration) {
+		this(replicas, fallback, ReadReplicaLoadBalancingDataSource::hikariLoad, ejectDuration, maxEjectDuration,
+				System::nanoTime);
+	}
+
+	ReadReplicaLoadBalancingDataSource(List<? extends DataSource> replicas, DataSource fallback,
+			ToIntFunction<DataSource> load, Duration ejectDuration, Duration maxEjectDuration, LongSupplier nanoTime) {
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.fallback = fallback;
+		this.load = load;
+		this.ejectNanos = ejectDuration.toNanos();
+		this.maxEjectNanos = maxEjectDuration.toNanos();
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * @return active connections plus threads awaiting one, 0 until the pool has started
+	 */
+	static int hikariLoad(DataSource dataSource) {
+		if (dataSource instanceof HikariDataSource hikari) {
+			final HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+			return (pool == null) ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+		}
+		return 0;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		final List<Replica> candidates = new ArrayList<>(this.replicas.size());
+		final long now = this.nanoTime.getAsLong();
+		for (Replica replica : this.replicas) {
+			if (replica.isAvailable(now) && this.replicaFilter.test(replica.dataSource)) {
+				candidates.add(replica);
+			}
+		}
+		while (!candidates.isEmpty()) {
+			final Replica replica = choose(candidates);
+			try {
+				final Connection connection = (username == null) ? replica.dataSource.getConnection()
+						: replica.dataSource.getConnection(username, password);
+				replica.succeeded();
+				served(replica.dataSource);
+				return connection;
+			}
+			catch (SQLException e) {
+				if (isConnectionFailure(e)) {
+					replica.failed(this.nanoTime.getAsLong());
+					log.warn("Ejected read replica {} for {}ms: {}", replica.dataSource, replica.ejectedFor / 1_000_000,
+							e.toString());
+				}
+				else {
+					log.debug("Read replica {} is busy: {}", replica.dataSource, e.toString());
+				}
+				candidates.remove(replica);
+			}
+		}
+		final Connection connection = (username == null) ? this.fallback.getConnection()
+				: this.fallback.getConnection(username, password);
+		served(this.fallback);
+		return connection;
+	}
+
+	/**
+	 * Hikari reports both a dead replica and an exhausted pool as
+	 * {@link java.sql.SQLTransientConnectionException}, but only carries over the SQLState
+	 * of the failure when it could not connect.
+	 * @return whether the exception or one of its causes is a connection exception
+	 */
+	static boolean isConnectionFailure(SQLException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLNonTransientConnectionException) {
+				return true;
+			}
+			if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+					&& sqlException.getSQLState().startsWith("08")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void served(DataSource dataSource) {
+		if (this.routeReport != null) {
+			this.routeReport.served(dataSource);
+		}
+	}
+
+	public void setRouteReport(RouteReport routeReport) {
+		this.routeReport = routeReport;
+	}
+
+	/**
+	 * Restricts replicas that are not ejected further, e.g. to those that are not lagging
+	 * behind.
+	 * @see ReplicationLagMonitor#isEligible(DataSource)
+	 */
+	public void setReplicaFilter(Predicate<DataSource> replicaFilter) {
+		this.replicaFilter = replicaFilter;
+	}
+
+	private Replica choose(List<Replica> candidates) {
+		if (candidates.size() == 1) {
+			return candidates.get(0);
+		}
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		final int i = random.nextInt(candidates.size());
+		final int j = (i + 1 + random.nextInt(candidates.size() - 1)) % candidates.size();
+		final Replica a = candidates.get(i);
+		final Replica b = candidates.get(j);
+		return (this.load.applyAsInt(a.dataSource) <= this.load.applyAsInt(b.dataSource)) ? a : b;
+	}
+
+	/**
+	 * @return the replicas that are currently not ejected
+	 */
+	public List<DataSource> availableReplicas() {
+		final long now = this.nanoTime.getAsLong();
+		return this.replicas.stream().filter(replica -> replica.isAvailable(now)).map(Replica::dataSource).toList();
+	}
+
+	public List<DataSource> replicas() {
+		return this.replicas.stream().map(Replica::dataSource).toList();
+	}
+
+	@Override
+	public void close() throws Exception {
+		for (Replica replica : this.replicas) {
+			if (replica.dataSource instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	private final class Replica {
+		private final DataSource dataSource;
+
+		private volatile long ejectedUntil;
+
+		private volatile long ejectedFor;
+
+		private volatile boolean ejected;
+
+		Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		DataSource dataSource() {
+			return this.dataSource;
+		}
+
+		boolean isAvailable(long now) {
+			return !this.ejected || now - this.ejectedUntil >= 0;
+		}
+
+		synchronized void failed(long now) {
+			this.ejectedFor = (this.ejectedFor == 0) ? ejectNanos : Math.min(this.ejectedFor * 2, maxEjectNanos);
+			this.ejectedUntil = now + this.ejectedFor;
+			this.ejected = true;
+		}
+
+		void succeeded() {
+			if (this.ejected) {
+				synchronized (this) {
+					this.ejected = false;
+					this.ejectedFor = 0;
+				}
+				log.info("Re-admitted read replica {}", this.dataSource);
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package hajiboot.datasource;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies SQL as read or write and exposes the classification of the statement being
+ * executed on the current thread to {@link ReadOnlyTransactionRoutingDataSource}, which
+ * routes reads outside an explicit transaction to the read replicas. A statement is a
+ * read when it is a {@code SELECT} (or a {@code WITH} without data-modifying parts) that
+ * neither locks rows nor calls sequence functions, which hot standbys reject.
+ */
+public final class ReadWriteInference {
+	private static final ThreadLocal<Statement> current = new ThreadLocal<>();
+
+	private static final Pattern LEADING_COMMENTS = Pattern.compile("^(\\s*(/\\*.*?\\*/|--[^\\n]*\\n?))*\\s*",
+			Pattern.DOTALL);
+
+	private static final Pattern STATEMENT_NAME = Pattern.compile("^\\s*/\\*\\s*(\\S+)\\s*\\*/");
+
+	private static final Pattern WRITE_KEYWORDS = Pattern.compile(
+			"\\b(insert|update|delete|merge|nextval|setval|for\\s+(no\\s+key\\s+)?update|for\\s+(key\\s+)?share)\\b");
+
+	private ReadWriteInference() {
+	}
+
+	public static boolean isRead(String sql) {
+		final String body = LEADING_COMMENTS.matcher(sql).replaceFirst("").toLowerCase(Locale.ROOT);
+		if (!body.startsWith("select") && !body.startsWith("with")) {
+			return false;
+		}
+		return !WRITE_KEYWORDS.matcher(body).find();
+	}
+
+	/**
+	 * @return the name in the leading block comment added by
+	 * {@link hajiboot.util.FileLoader#loadSqlAsString(String)}, or {@code null}
+	 */
+	public static String statementName(String sql) {
+		final Matcher matcher = STATEMENT_NAME.matcher(sql);
+		return matcher.find() ? matcher.group(1) : null;
+	}
+
+	static <T> T run(String sql, Supplier<T> action) {
+		final Statement previous = current.get();
+		current.set(new Statement(isRead(sql), statementName(sql)));
+		try {
+			return action.get();
+		}
+		finally {
+			if (previous == null) {
+				current.remove();
+			}
+			else {
+				current.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * @return whether the statement being executed on this thread is a read
+	 */
+	public static boolean isRead() {
+		final Statement statement = current.get();
+		return statement != null && statement.read();
+	}
+
+	static String currentStatementName() {
+		final Statement statement = current.get();
+		return (statement == null) ? null : statement.name();
+	}
+
+	private record Statement(boolean read, String name) {
+	}
+}
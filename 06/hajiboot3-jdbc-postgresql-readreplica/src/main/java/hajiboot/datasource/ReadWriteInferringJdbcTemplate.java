@@ -0,0 +1,51 @@
+package hajiboot.datasource;
+
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlProvider;
+
+/**
+ * A {@link JdbcTemplate} that classifies the SQL of every query through
+ * {@link ReadWriteInference} while it obtains its connection. All {@code query} and
+ * {@code queryForStream} variants, including those of a
+ * {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate} on top of
+ * it, funnel into the four methods overridden here. Updates are never classified and
+ * therefore go to the primary.
+ */
+public class ReadWriteInferringJdbcTemplate extends JdbcTemplate {
+	public ReadWriteInferringJdbcTemplate(DataSource dataSource) {
+		super(dataSource);
+	}
+
+	@Override
+	public <T> T query(String sql, ResultSetExtractor<T> rse) {
+		return ReadWriteInference.run(sql, () -> super.query(sql, rse));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper) {
+		return ReadWriteInference.run(sql, () -> super.queryForStream(sql, rowMapper));
+	}
+
+	@Override
+	public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse) {
+		final String sql = (psc instanceof SqlProvider sqlProvider) ? sqlProvider.getSql() : null;
+		return (sql == null) ? super.query(psc, pss, rse)
+				: ReadWriteInference.run(sql, () -> super.query(psc, pss, rse));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) {
+		final String sql = (psc instanceof SqlProvider sqlProvider) ? sqlProvider.getSql() : null;
+		return (sql == null) ? super.queryForStream(psc, pss, rowMapper)
+				: ReadWriteInference.run(sql, () -> super.queryForStream(psc, pss, rowMapper));
+	}
+}
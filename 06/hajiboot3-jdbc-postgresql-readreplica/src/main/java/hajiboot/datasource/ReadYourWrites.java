@@ -0,0 +1,82 @@
+package hajiboot.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound read-your-writes state. After a read-write transaction commits, its
+ * commit LSN is recorded here and becomes the minimum LSN that read replicas must have
+ * replayed to serve reads on the same thread. To carry the guarantee across requests,
+ * hand {@link #lastCommit()} to the client (e.g. in a cookie or header) and pass it back
+ * on the next request.
+ * <p>
+ * Run each unit of work (e.g. a request) with {@link #run(Lsn, Supplier)}, which restores
+ * the previous state when it ends, so that the LSNs of one unit of work do not hold back
+ * the reads of the next one to run on a pooled thread. State recorded outside of it stays
+ * until {@link #clear()}.
+ * <p>
+ * This module has no entry point of its own that could do so: the caller, e.g. a servlet
+ * filter or a message listener, must wrap its work in {@link #run(Lsn, Supplier)} or call
+ * {@link #clear()} when it is done. Otherwise every commit raises the LSN required by later
+ * reads on the same thread for good.
+ */
+public final class ReadYourWrites {
+	private static final ThreadLocal<Lsn> required = new ThreadLocal<>();
+
+	private static final ThreadLocal<Lsn> lastCommit = new ThreadLocal<>();
+
+	private ReadYourWrites() {
+	}
+
+	/**
+	 * @param required the LSN the client got from {@link #lastCommit()} after its previous
+	 * writes, or {@code null}
+	 */
+	public static <T> T run(Lsn required, Supplier<T> action) {
+		final Lsn previousRequired = ReadYourWrites.required.get();
+		final Lsn previousLastCommit = lastCommit.get();
+		if (required != null) {
+			require(required);
+		}
+		try {
+			return action.get();
+		}
+		finally {
+			restore(ReadYourWrites.required, previousRequired);
+			restore(lastCommit, previousLastCommit);
+		}
+	}
+
+	private static void restore(ThreadLocal<Lsn> holder, Lsn previous) {
+		if (previous == null) {
+			holder.remove();
+		}
+		else {
+			holder.set(previous);
+		}
+	}
+
+	public static void require(Lsn lsn) {
+		final Lsn current = required.get();
+		if (current == null || current.compareTo(lsn) < 0) {
+			required.set(lsn);
+		}
+	}
+
+	public static Lsn required() {
+		return required.get();
+	}
+
+	public static Lsn lastCommit() {
+		return lastCommit.get();
+	}
+
+	static void committed(Lsn lsn) {
+		lastCommit.set(lsn);
+		require(lsn);
+	}
+
+	public static void clear() {
+		required.remove();
+		lastCommit.remove();
+	}
+}
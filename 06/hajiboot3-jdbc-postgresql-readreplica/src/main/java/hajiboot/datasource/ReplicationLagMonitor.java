@@ -0,0 +1,186 @@
+package hajiboot.datasource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Samples the replay LSN and replay lag of each read replica in the background. A
+ * replica is eligible for a read when its last sample succeeded, its lag is within
+ * {@code maxLag} and it has replayed the LSN {@link ReadYourWrites#required() required}
+ * by the current thread. A replica that has not been sampled yet is only eligible when
+ * no LSN is required.
+ * <p>
+ * A replica whose WAL receiver is not streaming fails its sample, and one that has heard
+ * nothing from the primary for longer than {@code wal_sender_timeout} lags by that long,
+ * so a disconnected or stalled replica is skipped even though it has replayed all the WAL
+ * it received. Reading {@code pg_stat_wal_receiver} requires the {@code pg_read_all_stats}
+ * role; without it every column but {@code pid} is {@code NULL}. A replica whose user lacks
+ * the role is reported as an error once and then sampled by its last replayed transaction
+ * only, so a disconnected WAL receiver goes unnoticed there until the replay lag grows.
+ */
+public class ReplicationLagMonitor implements AutoCloseable {
+	// an idle primary writes no WAL, so a replica that has replayed all it received only
+	// lags once the primary's keepalives stop; NULL when the WAL receiver is not streaming
+	static final String SAMPLE_SQL = """
+			SELECT COALESCE(pg_last_wal_replay_lsn(), pg_current_wal_lsn())::text,
+			       CASE WHEN NOT pg_is_in_recovery() THEN 0
+			            WHEN r.status IS DISTINCT FROM 'streaming' THEN NULL
+			            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN
+			                 CASE WHEN now() - r.last_msg_receipt_time
+			                           > COALESCE(NULLIF(current_setting('wal_sender_timeout'), '0')::interval, interval '1 minute')
+			                      THEN EXTRACT(EPOCH FROM now() - r.last_msg_receipt_time) * 1000
+			                      ELSE 0
+			                 END
+			            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+			       END::bigint
+			FROM (SELECT 1) AS self
+			LEFT JOIN pg_stat_wal_receiver r ON true
+			""";
+
+	// without pg_stat_wal_receiver, a replica that has replayed all it received does not lag
+	static final String REPLAY_SAMPLE_SQL = """
+			SELECT COALESCE(pg_last_wal_replay_lsn(), pg_current_wal_lsn())::text,
+			       CASE WHEN NOT pg_is_in_recovery() THEN 0
+			            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+			            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+			       END::bigint
+			""";
+
+	static final String WAL_RECEIVER_VISIBLE_SQL = "SELECT NOT pg_is_in_recovery()"
+			+ " OR pg_has_role('pg_read_all_stats', 'USAGE')";
+
+	private final Logger log = LoggerFactory.getLogger(ReplicationLagMonitor.class);
+
+	private final Map<DataSource, JdbcTemplate> replicas;
+
+	private final Duration maxLag;
+
+	private final Duration interval;
+
+	private final Map<DataSource, Sample> samples = new ConcurrentHashMap<>();
+
+	private final Map<DataSource, String> sampleSql = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService scheduler;
+
+	public ReplicationLagMonitor(List<? extends DataSource> replicas, Duration maxLag, Duration interval) {
+		this.replicas = new ConcurrentHashMap<>();
+		for (DataSource replica : replicas) {
+			final JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+			jdbcTemplate.setQueryTimeout((int) Math.max(1, interval.toSeconds()));
+			this.replicas.put(replica, jdbcTemplate);
+		}
+		this.maxLag = maxLag;
+		this.interval = interval;
+	}
+
+	public void start() {
+		this.replicas.forEach((replica, jdbcTemplate) -> {
+			try {
+				sampleSql(replica, jdbcTemplate);
+			}
+			catch (RuntimeException e) {
+				// checked again before its first sample
+			}
+		});
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "replication-lag-monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::sampleAll, 0, this.interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void close() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+		}
+	}
+
+	void sampleAll() {
+		this.replicas.forEach((replica, jdbcTemplate) -> {
+			try {
+				final Sample sample = jdbcTemplate.queryForObject(sampleSql(replica, jdbcTemplate), (rs, i) -> {
+					final Lsn replayLsn = Lsn.parse(rs.getString(1));
+					final long lag = rs.getLong(2);
+					return new Sample(replayLsn, rs.wasNull() ? null : Duration.ofMillis(lag));
+				});
+				record(replica, sample);
+			}
+			catch (RuntimeException e) {
+				failed(replica, e.toString());
+			}
+		});
+	}
+
+	private String sampleSql(DataSource replica, JdbcTemplate jdbcTemplate) {
+		String sql = this.sampleSql.get(replica);
+		if (sql == null) {
+			if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(WAL_RECEIVER_VISIBLE_SQL, Boolean.class))) {
+				sql = SAMPLE_SQL;
+			}
+			else {
+				log.error("Cannot read pg_stat_wal_receiver of {} without the pg_read_all_stats role;"
+						+ " sampling its lag from the last replayed transaction only", replica);
+				sql = REPLAY_SAMPLE_SQL;
+			}
+			this.sampleSql.put(replica, sql);
+		}
+		return sql;
+	}
+
+	/**
+	 * @param sample a sample without lag marks the replica as not streaming WAL
+	 */
+	void record(DataSource replica, Sample sample) {
+		if (sample.lag() == null) {
+			failed(replica, "WAL receiver is not streaming");
+			return;
+		}
+		final Sample previous = this.samples.put(replica, sample);
+		final boolean lagging = sample.lag().compareTo(this.maxLag) > 0;
+		if (previous != null && previous.lag() != null && lagging != previous.lag().compareTo(this.maxLag) > 0) {
+			log.info(lagging ? "Skip {} lagging {}ms behind" : "Resume {} lagging {}ms behind", replica,
+					sample.lag().toMillis());
+		}
+	}
+
+	private void failed(DataSource replica, String reason) {
+		if (this.samples.put(replica, Sample.FAILED) != Sample.FAILED) {
+			log.warn("Failed to sample replication lag of {}: {}", replica, reason);
+		}
+	}
+
+	public boolean isEligible(DataSource replica) {
+		final Sample sample = this.samples.get(replica);
+		final Lsn required = ReadYourWrites.required();
+		if (sample == null) {
+			return required == null;
+		}
+		if (sample == Sample.FAILED || sample.lag().compareTo(this.maxLag) > 0) {
+			return false;
+		}
+		return required == null || sample.replayLsn().compareTo(required) >= 0;
+	}
+
+	public Map<DataSource, Sample> samples() {
+		return Map.copyOf(this.samples);
+	}
+
+	public record Sample(Lsn replayLsn, Duration lag) {
+		static final Sample FAILED = new Sample(null, null);
+	}
+}
@@ -0,0 +1,58 @@
+package hajiboot.datasource;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Counts, per SQL statement, which pool served its connections. The statement is the name
+ * of the SQL file being executed, as seen by {@link ReadWriteInference}.
+ *
+ * @see RoutesEndpoint
+ */
+public class RouteReport {
+	static final String UNKNOWN = "(unknown)";
+
+	private final Map<String, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+	static String currentStatement() {
+		final String statement = ReadWriteInference.currentStatementName();
+		return (statement == null) ? UNKNOWN : statement;
+	}
+
+	void served(DataSource dataSource) {
+		this.counts.computeIfAbsent(currentStatement(), k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(poolName(dataSource), k -> new LongAdder())
+				.increment();
+	}
+
+	static String poolName(DataSource dataSource) {
+		return (dataSource instanceof HikariDataSource hikari && hikari.getPoolName() != null) ? hikari.getPoolName()
+				: dataSource.toString();
+	}
+
+	/**
+	 * @return connection counts by statement and pool name
+	 */
+	public Map<String, Map<String, Long>> snapshot() {
+		final Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+		this.counts.forEach((name, pools) -> {
+			final Map<String, Long> served = new TreeMap<>();
+			pools.forEach((pool, count) -> served.put(pool, count.sum()));
+			snapshot.put(name, served);
+		});
+		return snapshot;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder report = new StringBuilder();
+		snapshot().forEach((name, pools) -> report.append(name).append(" -> ").append(pools).append('\n'));
+		return report.toString();
+	}
+}
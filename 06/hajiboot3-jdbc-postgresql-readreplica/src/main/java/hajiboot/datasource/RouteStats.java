@@ -0,0 +1,89 @@
+package hajiboot.datasource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Per-route counters maintained by {@link ReadOnlyTransactionRoutingDataSource}. All
+ * updates are contention-free adders, cheap enough to leave on in production.
+ */
+public class RouteStats {
+	private final LongAdder connections = new LongAdder();
+
+	private final LongAdder acquireNanos = new LongAdder();
+
+	private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder statements = new LongAdder();
+
+	void acquired(long nanos) {
+		this.connections.increment();
+		this.acquireNanos.add(nanos);
+		this.maxAcquireNanos.accumulate(nanos);
+	}
+
+	void statementCreated() {
+		this.statements.increment();
+	}
+
+	/**
+	 * @return the number of connections handed out on this route
+	 */
+	public long connections() {
+		return this.connections.sum();
+	}
+
+	public long totalAcquireTime(TimeUnit unit) {
+		return unit.convert(this.acquireNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	public long maxAcquireTime(TimeUnit unit) {
+		return unit.convert(this.maxAcquireNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the number of statements created on this route's connections, one per
+	 * query for {@code JdbcTemplate}
+	 */
+	public long statements() {
+		return this.statements.sum();
+	}
+
+	/**
+	 * Publishes these counters as {@code datasource.route.connections},
+	 * {@code datasource.route.acquire} (count and total time),
+	 * {@code datasource.route.acquire.max} and {@code datasource.route.statements}.
+	 */
+	void bindTo(MeterRegistry registry, Tags tags) {
+		FunctionCounter.builder("datasource.route.connections", this, RouteStats::connections)
+				.description("Connections handed out on the route")
+				.tags(tags)
+				.register(registry);
+		FunctionTimer.builder("datasource.route.acquire", this, RouteStats::connections,
+						stats -> stats.acquireNanos.sum(), TimeUnit.NANOSECONDS)
+				.description("Time spent acquiring connections on the route")
+				.tags(tags)
+				.register(registry);
+		TimeGauge.builder("datasource.route.acquire.max", this, TimeUnit.NANOSECONDS, stats -> stats.maxAcquireNanos.get())
+				.description("Longest connection acquisition on the route")
+				.tags(tags)
+				.register(registry);
+		FunctionCounter.builder("datasource.route.statements", this, RouteStats::statements)
+				.description("Statements created on the route's connections while debug is enabled")
+				.tags(tags)
+				.register(registry);
+	}
+
+	@Override
+	public String toString() {
+		return "connections=%d, acquire(total=%dms, max=%dms), statements=%d".formatted(connections(),
+				totalAcquireTime(TimeUnit.MILLISECONDS), maxAcquireTime(TimeUnit.MILLISECONDS), statements());
+	}
+}
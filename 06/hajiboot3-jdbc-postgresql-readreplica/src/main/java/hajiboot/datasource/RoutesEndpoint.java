@@ -0,0 +1,26 @@
+package hajiboot.datasource;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Exposes the {@link RouteReport} as the {@code routes} actuator endpoint.
+ */
+@Endpoint(id = "routes")
+public class RoutesEndpoint {
+	private final RouteReport routeReport;
+
+	public RoutesEndpoint(RouteReport routeReport) {
+		this.routeReport = routeReport;
+	}
+
+	/**
+	 * @return connection counts by statement and pool name
+	 */
+	@ReadOperation
+	public Map<String, Map<String, Long>> routes() {
+		return this.routeReport.snapshot();
+	}
+}
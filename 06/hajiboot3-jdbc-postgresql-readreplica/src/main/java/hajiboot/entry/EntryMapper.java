@@ -26,7 +26,6 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-@Transactional(readOnly = true)
 public class EntryMapper {
 	private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -66,6 +65,7 @@ public class EntryMapper {
 		return Objects.requireNonNull(this.jdbcTemplate.queryForObject(sql, EmptySqlParameterSource.INSTANCE, Long.class));
 	}
 
+	@Transactional(readOnly = true) // content and count from the same replica
 	public OffsetPage<Entry> findAll(OffsetPageRequest pageRequest) {
 		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/findAllOffset.sql")
 				.formatted(pageRequest.offset(), pageRequest.pageSize());
@@ -0,0 +1,160 @@
+package hajiboot.datasource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hajiboot.datasource.HikariPoolAutotuner.Sizing;
+import hajiboot.datasource.HikariPoolAutotuner.Usage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolAutotunerTest {
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	HikariPoolAutotuner autotuner = new HikariPoolAutotuner(this.meterRegistry, 2, 10, Duration.ofMillis(20), 0.2,
+			Duration.ofSeconds(10));
+
+	HikariDataSource dataSource;
+
+	@AfterEach
+	void close() {
+		if (this.dataSource != null) {
+			this.dataSource.close();
+		}
+	}
+
+	@Test
+	void growWhenSaturated() {
+		// 5 connections in use on average and 3 threads waiting
+		Sizing sizing = this.autotuner.size(5, new Usage(3, 5, 1000, 1000 * 1_000_000L, 50_000, 0, 10_000));
+		assertThat(sizing).isEqualTo(new Sizing(10, 10, 5, true));
+
+		// slow acquisition alone also counts
+		sizing = this.autotuner.size(5, new Usage(0, 2, 10, 10 * 50_000_000L, 20_000, 0, 10_000));
+		assertThat(sizing).isEqualTo(new Sizing(3, 6, 2, true));
+
+		// never beyond maxSize
+		sizing = this.autotuner.size(10, new Usage(0, 10, 10, 0, 100_000, 1, 10_000));
+		assertThat(sizing.maximumPoolSize()).isEqualTo(10);
+		assertThat(sizing.saturated()).isTrue();
+	}
+
+	@Test
+	void shrinkGraduallyWhenOverProvisioned() {
+		Sizing sizing = this.autotuner.size(8, new Usage(0, 1, 100, 100_000L, 5_000, 0, 10_000));
+		assertThat(sizing).isEqualTo(new Sizing(2, 7, 2, false));
+
+		// never below minSize
+		sizing = this.autotuner.size(2, new Usage(0, 0, 0, 0, 0, 0, 10_000));
+		assertThat(sizing).isEqualTo(new Sizing(2, 2, 2, false));
+	}
+
+	@Test
+	void tuneThroughMXBean() throws Exception {
+		this.dataSource = new HikariDataSource();
+		this.dataSource.setDataSource(new StubDataSource());
+		this.dataSource.setPoolName("test-pool");
+		this.dataSource.setMaximumPoolSize(8);
+		this.dataSource.setMinimumIdle(8);
+		this.autotuner.register(this.dataSource);
+		try (Connection connection = this.dataSource.getConnection()) {
+			assertThat(connection).isNotNull();
+		}
+		assertThat(this.meterRegistry.get("hikaricp.connections.acquire").tag("pool", "test-pool").timer().count())
+				.isEqualTo(1);
+
+		this.autotuner.tuneAll();
+		assertThat(this.dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(7);
+		assertThat(this.dataSource.getHikariConfigMXBean().getMinimumIdle()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("datasource.pool.recommended.size").tag("pool", "test-pool").gauge().value())
+				.isEqualTo(2);
+		assertThat(this.meterRegistry.get("datasource.pool.resize").tag("direction", "shrink").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void tuneWithoutMeterRegistry() throws Exception {
+		final HikariPoolAutotuner autotuner = new HikariPoolAutotuner(null, 2, 10, Duration.ofMillis(20), 0.2,
+				Duration.ofSeconds(10));
+		this.dataSource = new HikariDataSource();
+		this.dataSource.setDataSource(new StubDataSource());
+		this.dataSource.setPoolName("test-pool");
+		this.dataSource.setMaximumPoolSize(8);
+		this.dataSource.setMinimumIdle(8);
+		autotuner.register(this.dataSource);
+		try (Connection connection = this.dataSource.getConnection()) {
+			assertThat(connection).isNotNull();
+		}
+
+		autotuner.tuneAll();
+		assertThat(this.dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(7);
+		assertThat(this.dataSource.getHikariConfigMXBean().getMinimumIdle()).isEqualTo(2);
+	}
+
+	@Test
+	void registerAfterPropertiesAreBound() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+				.withUserConfiguration(RegistrarConfig.class)
+				.withBean(HikariPoolAutotuner.class, () -> this.autotuner)
+				.withPropertyValues("spring.datasource.hikari.pool-name=bound-pool",
+						"spring.datasource.hikari.maximum-pool-size=7")
+				.run(context -> {
+					assertThat(context).hasNotFailed();
+					assertThat(this.meterRegistry.get("datasource.pool.recommended.size").tag("pool", "bound-pool")
+							.gauge().value()).isEqualTo(7);
+					assertThat(this.meterRegistry.find("datasource.pool.recommended.size").tag("pool", "default-pool")
+							.gauge()).isNull();
+				});
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class RegistrarConfig {
+		@Bean
+		static HikariPoolAutotunerRegistrar hikariPoolAutotunerRegistrar(
+				ObjectProvider<HikariPoolAutotuner> hikariPoolAutotuner) {
+			return new HikariPoolAutotunerRegistrar(hikariPoolAutotuner);
+		}
+
+		@Bean
+		@ConfigurationProperties("spring.datasource.hikari")
+		HikariDataSource dataSource() {
+			HikariDataSource dataSource = new HikariDataSource();
+			dataSource.setDataSource(new StubDataSource());
+			dataSource.setPoolName("default-pool");
+			return dataSource;
+		}
+	}
+
+	static class StubDataSource extends AbstractDataSource {
+		@Override
+		public Connection getConnection() {
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, method, args) -> switch (method.getName()) {
+						case "isValid", "getAutoCommit" -> true;
+						case "getTransactionIsolation", "getNetworkTimeout" -> 0;
+						case "isReadOnly", "isClosed" -> false;
+						default -> null;
+					});
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) {
+			return getConnection();
+		}
+	}
+}
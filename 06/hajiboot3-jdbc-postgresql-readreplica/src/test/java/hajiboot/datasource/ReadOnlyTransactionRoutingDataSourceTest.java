@@ -0,0 +1,101 @@
+package hajiboot.datasource;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import hajiboot.datasource.ReadOnlyTransactionRoutingDataSource.DataSourceType;
+import hajiboot.datasource.ReadReplicaLoadBalancingDataSourceTest.StubDataSource;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadOnlyTransactionRoutingDataSourceTest {
+	StubDataSource readOnly = new StubDataSource("replica");
+
+	StubDataSource readWrite = new StubDataSource("primary");
+
+	@AfterEach
+	void clear() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	ReadOnlyTransactionRoutingDataSource routingDataSource(boolean debug) {
+		ReadOnlyTransactionRoutingDataSource routingDataSource = new ReadOnlyTransactionRoutingDataSource(debug);
+		routingDataSource.setTargetDataSources(Map.of(
+				DataSourceType.READ_ONLY, this.readOnly,
+				DataSourceType.READ_WRITE, this.readWrite));
+		routingDataSource.afterPropertiesSet();
+		return routingDataSource;
+	}
+
+	@Test
+	void routeAndCount() throws Exception {
+		ReadOnlyTransactionRoutingDataSource routingDataSource = routingDataSource(true);
+		Connection readWrite = routingDataSource.getConnection();
+		assertThat(readWrite).isInstanceOf(RoutedConnection.class).hasToString("<<READ_WRITE>> primary");
+		readWrite.prepareStatement("SELECT 1");
+		readWrite.createStatement();
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection readOnly = routingDataSource.getConnection();
+		assertThat(readOnly.unwrap(RoutedConnection.class).route()).isEqualTo(DataSourceType.READ_ONLY);
+		readOnly.prepareStatement("SELECT 1");
+
+		assertThat(this.readWrite.connections).isEqualTo(1);
+		assertThat(this.readOnly.connections).isEqualTo(1);
+		RouteStats readWriteStats = routingDataSource.routeStats(DataSourceType.READ_WRITE);
+		assertThat(readWriteStats.connections()).isEqualTo(1);
+		assertThat(readWriteStats.statements()).isEqualTo(2);
+		RouteStats readOnlyStats = routingDataSource.routeStats(DataSourceType.READ_ONLY);
+		assertThat(readOnlyStats.connections()).isEqualTo(1);
+		assertThat(readOnlyStats.statements()).isEqualTo(1);
+	}
+
+	@Test
+	void routeAndCountWithCredentials() throws Exception {
+		ReadOnlyTransactionRoutingDataSource routingDataSource = routingDataSource(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Connection readOnly = routingDataSource.getConnection("user", "password");
+		assertThat(readOnly).isInstanceOf(RoutedConnection.class).hasToString("<<READ_ONLY>> replica");
+		readOnly.prepareStatement("SELECT 1");
+
+		assertThat(this.readOnly.connections).isEqualTo(1);
+		RouteStats readOnlyStats = routingDataSource.routeStats(DataSourceType.READ_ONLY);
+		assertThat(readOnlyStats.connections()).isEqualTo(1);
+		assertThat(readOnlyStats.statements()).isEqualTo(1);
+	}
+
+	@Test
+	void countAcquisitionsWithoutDebug() throws Exception {
+		ReadOnlyTransactionRoutingDataSource routingDataSource = routingDataSource(false);
+		assertThat(routingDataSource.getConnection()).isNotInstanceOf(RoutedConnection.class);
+		assertThat(routingDataSource.routeStats(DataSourceType.READ_WRITE).connections()).isEqualTo(1);
+	}
+
+	@Test
+	void meters() throws Exception {
+		ReadOnlyTransactionRoutingDataSource routingDataSource = routingDataSource(true);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		routingDataSource.bindTo(registry);
+		routingDataSource.getConnection().createStatement();
+		routingDataSource.getConnection();
+
+		assertThat(registry.get("datasource.route.connections").tag("route", "READ_WRITE").functionCounter().count())
+				.isEqualTo(2);
+		assertThat(registry.get("datasource.route.connections").tag("route", "READ_ONLY").functionCounter().count())
+				.isZero();
+		assertThat(registry.get("datasource.route.statements").tag("route", "READ_WRITE").functionCounter().count())
+				.isEqualTo(1);
+		FunctionTimer acquire = registry.get("datasource.route.acquire").tag("route", "READ_WRITE").functionTimer();
+		assertThat(acquire.count()).isEqualTo(2);
+		assertThat(acquire.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+		assertThat(registry.get("datasource.route.acquire.max").tag("route", "READ_WRITE").timeGauge()
+				.value(TimeUnit.NANOSECONDS)).isPositive();
+	}
+}
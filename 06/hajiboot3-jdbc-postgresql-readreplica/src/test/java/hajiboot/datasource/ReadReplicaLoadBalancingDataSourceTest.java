@@ -0,0 +1,189 @@
+package hajiboot.datasource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaLoadBalancingDataSourceTest {
+	AtomicLong now = new AtomicLong();
+
+	Map<DataSource, Integer> loads = new HashMap<>();
+
+	@Test
+	void preferLessLoadedReplica() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		final StubDataSource replica1 = new StubDataSource("replica1");
+		this.loads.put(replica0, 5);
+		this.loads.put(replica1, 1);
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0, replica1),
+				new StubDataSource("primary"));
+		for (int i = 0; i < 10; i++) {
+			assertThat(dataSource.getConnection().toString()).isEqualTo("replica1");
+		}
+	}
+
+	@Test
+	void spreadOverReplicas() throws Exception {
+		final List<StubDataSource> replicas = List.of(new StubDataSource("replica0"), new StubDataSource("replica1"),
+				new StubDataSource("replica2"));
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(replicas, new StubDataSource("primary"));
+		for (int i = 0; i < 300; i++) {
+			dataSource.getConnection();
+		}
+		assertThat(replicas).allSatisfy(replica -> assertThat(replica.connections).isGreaterThan(0));
+	}
+
+	@Test
+	void ejectAndReadmit() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		final StubDataSource replica1 = new StubDataSource("replica1");
+		this.loads.put(replica0, 0);
+		this.loads.put(replica1, 1);
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0, replica1),
+				new StubDataSource("primary"));
+		replica0.down = true;
+		assertThat(dataSource.getConnection().toString()).isEqualTo("replica1");
+		assertThat(dataSource.availableReplicas()).containsExactly(replica1);
+
+		replica0.down = false;
+		this.now.addAndGet(Duration.ofSeconds(9).toNanos());
+		assertThat(dataSource.getConnection().toString()).isEqualTo("replica1");
+		this.now.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertThat(dataSource.getConnection().toString()).isEqualTo("replica0");
+		assertThat(dataSource.availableReplicas()).containsExactly(replica0, replica1);
+	}
+
+	@Test
+	void backOffOnRepeatedFailures() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		replica0.down = true;
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0),
+				new StubDataSource("primary"));
+		assertThat(dataSource.getConnection().toString()).isEqualTo("primary");
+		this.now.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertThat(dataSource.getConnection().toString()).isEqualTo("primary");
+		assertThat(replica0.attempts).isEqualTo(2);
+		// ejected for 20s after the second failure
+		this.now.addAndGet(Duration.ofSeconds(19).toNanos());
+		dataSource.getConnection();
+		assertThat(replica0.attempts).isEqualTo(2);
+		this.now.addAndGet(Duration.ofSeconds(1).toNanos());
+		dataSource.getConnection();
+		assertThat(replica0.attempts).isEqualTo(3);
+	}
+
+	@Test
+	void fallbackWhenAllReplicasAreDown() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		final StubDataSource replica1 = new StubDataSource("replica1");
+		replica0.down = true;
+		replica1.down = true;
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0, replica1),
+				new StubDataSource("primary"));
+		assertThat(dataSource.getConnection().toString()).isEqualTo("primary");
+		assertThat(dataSource.availableReplicas()).isEmpty();
+	}
+
+	@Test
+	void skipBusyReplicaWithoutEjecting() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		final StubDataSource replica1 = new StubDataSource("replica1");
+		this.loads.put(replica0, 0);
+		this.loads.put(replica1, 1);
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0, replica1),
+				new StubDataSource("primary"));
+		replica0.busy = true;
+		assertThat(dataSource.getConnection().toString()).isEqualTo("replica1");
+		assertThat(dataSource.availableReplicas()).containsExactly(replica0, replica1);
+
+		replica0.busy = false;
+		assertThat(dataSource.getConnection().toString()).isEqualTo("replica0");
+	}
+
+	@Test
+	void fallbackWhenAllReplicasAreBusy() throws Exception {
+		final StubDataSource replica0 = new StubDataSource("replica0");
+		replica0.busy = true;
+		final ReadReplicaLoadBalancingDataSource dataSource = dataSource(List.of(replica0),
+				new StubDataSource("primary"));
+		assertThat(dataSource.getConnection().toString()).isEqualTo("primary");
+		assertThat(dataSource.availableReplicas()).containsExactly(replica0);
+	}
+
+	@Test
+	void isConnectionFailure() {
+		assertThat(ReadReplicaLoadBalancingDataSource.isConnectionFailure(
+				new SQLTransientConnectionException("timeout", "08001", new SQLException("refused", "08001")))).isTrue();
+		assertThat(ReadReplicaLoadBalancingDataSource.isConnectionFailure(
+				new SQLTransientConnectionException("timeout", null, new SQLException("refused", "08006")))).isTrue();
+		assertThat(ReadReplicaLoadBalancingDataSource.isConnectionFailure(
+				new SQLNonTransientConnectionException("closed"))).isTrue();
+		assertThat(ReadReplicaLoadBalancingDataSource.isConnectionFailure(
+				new SQLTransientConnectionException("timeout"))).isFalse();
+		assertThat(ReadReplicaLoadBalancingDataSource.isConnectionFailure(
+				new SQLException("permission denied", "42501"))).isFalse();
+	}
+
+	ReadReplicaLoadBalancingDataSource dataSource(List<? extends DataSource> replicas, DataSource fallback) {
+		return new ReadReplicaLoadBalancingDataSource(replicas, fallback, d -> this.loads.getOrDefault(d, 0),
+				Duration.ofSeconds(10), Duration.ofMinutes(1), this.now::get);
+	}
+
+	static class StubDataSource extends AbstractDataSource {
+		final String name;
+
+		boolean down;
+
+		boolean busy;
+
+		int attempts;
+
+		int connections;
+
+		StubDataSource(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			this.attempts++;
+			if (this.down) {
+				// as Hikari reports a connection timeout after failing to connect
+				throw new SQLTransientConnectionException(this.name + " - Connection is not available", "08001",
+						new SQLException("Connection refused", "08001"));
+			}
+			if (this.busy) {
+				// as Hikari reports a connection timeout with every connection in use
+				throw new SQLTransientConnectionException(this.name + " - Connection is not available");
+			}
+			this.connections++;
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, method, args) -> "toString".equals(method.getName()) ? this.name : null);
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package hajiboot.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import hajiboot.datasource.ReadOnlyTransactionRoutingDataSource.DataSourceType;
+import hajiboot.datasource.ReadReplicaLoadBalancingDataSourceTest.StubDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteInferenceTest {
+	StubDataSource readOnly = new StubDataSource("replica");
+
+	StubDataSource readWrite = new StubDataSource("primary");
+
+	@AfterEach
+	void clear() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	void isRead() {
+		assertThat(ReadWriteInference.isRead("/* findOne.sql */ SELECT * FROM entry WHERE entry_id = :entryId")).isTrue();
+		assertThat(ReadWriteInference.isRead("-- count\nselect count(*) from entry")).isTrue();
+		assertThat(ReadWriteInference.isRead("WITH t AS (SELECT 1) SELECT * FROM t")).isTrue();
+		assertThat(ReadWriteInference.isRead("SELECT last_modified_date FROM entry")).isTrue();
+		assertThat(ReadWriteInference.isRead("/* insert.sql */ INSERT INTO entry VALUES (1)")).isFalse();
+		assertThat(ReadWriteInference.isRead("SELECT nextval('entry_id_seq')")).isFalse();
+		assertThat(ReadWriteInference.isRead("SELECT * FROM entry FOR UPDATE")).isFalse();
+		assertThat(ReadWriteInference.isRead("SELECT * FROM entry FOR KEY SHARE")).isFalse();
+		assertThat(ReadWriteInference.isRead("WITH d AS (DELETE FROM entry RETURNING *) SELECT * FROM d")).isFalse();
+	}
+
+	@Test
+	void statementName() {
+		assertThat(ReadWriteInference.statementName("/* hajiboot/entry/EntryMapper/findOne.sql */ SELECT 1"))
+				.isEqualTo("hajiboot/entry/EntryMapper/findOne.sql");
+		assertThat(ReadWriteInference.statementName("SELECT 1")).isNull();
+	}
+
+	@Test
+	void routeInferredReadsAndReport() {
+		final ReadOnlyTransactionRoutingDataSource routingDataSource = new ReadOnlyTransactionRoutingDataSource(false);
+		routingDataSource.setTargetDataSources(Map.of(
+				DataSourceType.READ_ONLY, this.readOnly,
+				DataSourceType.READ_WRITE, this.readWrite));
+		routingDataSource.afterPropertiesSet();
+		final RouteReport routeReport = new RouteReport();
+		routingDataSource.setRouteReport(routeReport);
+
+		ReadWriteInference.run("/* findAll.sql */ SELECT * FROM entry", () -> connect(routingDataSource));
+		ReadWriteInference.run("/* insert.sql */ INSERT INTO entry VALUES (1)", () -> connect(routingDataSource));
+		connect(routingDataSource);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		ReadWriteInference.run("/* findOne.sql */ SELECT * FROM entry", () -> connect(routingDataSource));
+
+		assertThat(this.readOnly.connections).isEqualTo(1);
+		assertThat(this.readWrite.connections).isEqualTo(3);
+		assertThat(routeReport.snapshot()).isEqualTo(Map.of(
+				"findAll.sql", Map.of("replica", 1L),
+				"insert.sql", Map.of("primary", 1L),
+				"findOne.sql", Map.of("primary", 1L),
+				RouteReport.UNKNOWN, Map.of("primary", 1L)));
+		assertThat(new RoutesEndpoint(routeReport).routes()).isEqualTo(routeReport.snapshot());
+	}
+
+	static Connection connect(DataSource dataSource) {
+		try {
+			return dataSource.getConnection();
+		}
+		catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package hajiboot.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ReplicationLagMonitorTest {
+	DataSource replica0 = new DriverManagerDataSource("jdbc:postgresql://localhost:1/replica0");
+
+	DataSource replica1 = new DriverManagerDataSource("jdbc:postgresql://localhost:1/replica1");
+
+	ReplicationLagMonitor monitor = new ReplicationLagMonitor(List.of(this.replica0, this.replica1),
+			Duration.ofSeconds(1), Duration.ofMillis(500));
+
+	@AfterEach
+	void clear() {
+		ReadYourWrites.clear();
+	}
+
+	@Test
+	void skipLaggingReplica() {
+		this.monitor.record(this.replica0, new ReplicationLagMonitor.Sample(Lsn.parse("0/3000000"), Duration.ZERO));
+		this.monitor.record(this.replica1, new ReplicationLagMonitor.Sample(Lsn.parse("0/2000000"), Duration.ofSeconds(5)));
+		assertThat(this.monitor.isEligible(this.replica0)).isTrue();
+		assertThat(this.monitor.isEligible(this.replica1)).isFalse();
+
+		this.monitor.record(this.replica1, new ReplicationLagMonitor.Sample(Lsn.parse("0/3000000"), Duration.ofMillis(10)));
+		assertThat(this.monitor.isEligible(this.replica1)).isTrue();
+	}
+
+	@Test
+	void readYourWrites() {
+		this.monitor.record(this.replica0, new ReplicationLagMonitor.Sample(Lsn.parse("1/A0000000"), Duration.ZERO));
+		this.monitor.record(this.replica1, new ReplicationLagMonitor.Sample(Lsn.parse("1/9FFFFFFF"), Duration.ZERO));
+		ReadYourWrites.committed(Lsn.parse("1/A0000000"));
+		assertThat(ReadYourWrites.lastCommit()).isEqualTo(Lsn.parse("1/A0000000"));
+		assertThat(this.monitor.isEligible(this.replica0)).isTrue();
+		assertThat(this.monitor.isEligible(this.replica1)).isFalse();
+
+		// an older token does not lower the requirement
+		ReadYourWrites.require(Lsn.parse("0/1"));
+		assertThat(ReadYourWrites.required()).isEqualTo(Lsn.parse("1/A0000000"));
+	}
+
+	@Test
+	void readYourWritesScopedToRun() {
+		this.monitor.record(this.replica0, new ReplicationLagMonitor.Sample(Lsn.parse("1/A0000000"), Duration.ZERO));
+		final Lsn lastCommit = ReadYourWrites.run(Lsn.parse("1/B0000000"), () -> {
+			assertThat(this.monitor.isEligible(this.replica0)).isFalse();
+			ReadYourWrites.committed(Lsn.parse("1/C0000000"));
+			return ReadYourWrites.lastCommit();
+		});
+		assertThat(lastCommit).isEqualTo(Lsn.parse("1/C0000000"));
+		assertThat(ReadYourWrites.required()).isNull();
+		assertThat(ReadYourWrites.lastCommit()).isNull();
+		assertThat(this.monitor.isEligible(this.replica0)).isTrue();
+
+		// a nested run keeps the outer requirement and restores it
+		final Lsn required = ReadYourWrites.run(Lsn.parse("1/A0000000"), () -> {
+			ReadYourWrites.run(null, () -> {
+				assertThat(ReadYourWrites.required()).isEqualTo(Lsn.parse("1/A0000000"));
+				ReadYourWrites.committed(Lsn.parse("1/D0000000"));
+				return null;
+			});
+			return ReadYourWrites.required();
+		});
+		assertThat(required).isEqualTo(Lsn.parse("1/A0000000"));
+	}
+
+	@Test
+	void notStreaming() {
+		this.monitor.record(this.replica0, new ReplicationLagMonitor.Sample(Lsn.parse("0/3000000"), Duration.ZERO));
+		assertThat(this.monitor.isEligible(this.replica0)).isTrue();
+		this.monitor.record(this.replica0, new ReplicationLagMonitor.Sample(Lsn.parse("0/3000000"), null));
+		assertThat(this.monitor.isEligible(this.replica0)).isFalse();
+	}
+
+	@Test
+	void notSampledYet() {
+		assertThat(this.monitor.isEligible(this.replica0)).isTrue();
+		ReadYourWrites.require(Lsn.parse("0/1"));
+		assertThat(this.monitor.isEligible(this.replica0)).isFalse();
+	}
+
+	@Test
+	void samplingFailed() {
+		// nothing listens on port 1
+		this.monitor.sampleAll();
+		assertThat(this.monitor.isEligible(this.replica0)).isFalse();
+		assertThat(this.monitor.isEligible(this.replica1)).isFalse();
+	}
+
+	@Test
+	void sampleWithWalReceiver() throws Exception {
+		final List<String> queries = new ArrayList<>();
+		final DataSource replica = replica(true, queries);
+		final ReplicationLagMonitor monitor = new ReplicationLagMonitor(List.of(replica), Duration.ofSeconds(1),
+				Duration.ofMinutes(1));
+		monitor.sampleAll();
+		monitor.sampleAll();
+		assertThat(queries).containsExactly(ReplicationLagMonitor.WAL_RECEIVER_VISIBLE_SQL,
+				ReplicationLagMonitor.SAMPLE_SQL, ReplicationLagMonitor.SAMPLE_SQL);
+		assertThat(monitor.isEligible(replica)).isTrue();
+	}
+
+	@Test
+	void sampleReplayOnlyWithoutPgReadAllStats() throws Exception {
+		final List<String> queries = new ArrayList<>();
+		final DataSource replica = replica(false, queries);
+		final ReplicationLagMonitor monitor = new ReplicationLagMonitor(List.of(replica), Duration.ofSeconds(1),
+				Duration.ofMinutes(1));
+		try {
+			monitor.start();
+			monitor.sampleAll();
+		}
+		finally {
+			monitor.close();
+		}
+		assertThat(queries).startsWith(ReplicationLagMonitor.WAL_RECEIVER_VISIBLE_SQL,
+				ReplicationLagMonitor.REPLAY_SAMPLE_SQL);
+		assertThat(queries).doesNotContain(ReplicationLagMonitor.SAMPLE_SQL);
+		assertThat(monitor.isEligible(replica)).isTrue();
+	}
+
+	@Test
+	void lsn() {
+		assertThat(Lsn.parse("16/B374D848").value()).isEqualTo(0x16B374D848L);
+		assertThat(Lsn.parse("16/B374D848")).hasToString("16/B374D848");
+		assertThat(Lsn.parse("FFFFFFFF/0")).isGreaterThan(Lsn.parse("7FFFFFFF/FFFFFFFF"));
+	}
+
+	DataSource replica(boolean walReceiverVisible, List<String> queries) throws SQLException {
+		final ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+		given(metaData.getColumnCount()).willReturn(1);
+		final Statement statement = mock(Statement.class);
+		given(statement.executeQuery(anyString())).willAnswer(invocation -> {
+			final String sql = invocation.getArgument(0);
+			synchronized (queries) {
+				queries.add(sql);
+			}
+			final ResultSet rs = mock(ResultSet.class);
+			given(rs.next()).willReturn(true, false);
+			given(rs.getMetaData()).willReturn(metaData);
+			given(rs.getBoolean(1)).willReturn(walReceiverVisible);
+			given(rs.getString(1)).willReturn("0/3000000");
+			given(rs.getLong(2)).willReturn(0L);
+			return rs;
+		});
+		final Connection connection = mock(Connection.class);
+		given(connection.createStatement()).willReturn(statement);
+		final DataSource dataSource = mock(DataSource.class);
+		given(dataSource.getConnection()).willReturn(connection);
+		return dataSource;
+	}
+}
@@ -45,8 +45,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 		"logging.level.org.springframework.jdbc.datasource.init.ScriptUtils=DEBUG",
 		"spring.datasource.username=customuser",
 		"spring.datasource.password=custompassword",
-		"read-only.datasource.username=customuser",
-		"read-only.datasource.password=custompassword"
+		"read-only.datasource[0].username=customuser",
+		"read-only.datasource[0].password=custompassword"
 })
 @AutoConfigureTestDatabase(replace = Replace.NONE)
 @Import({ EntryMapper.class, DataSourceConfig.class })
@@ -76,7 +76,7 @@ class EntryMapperTest {
 	@DynamicPropertySource
 	static void postgresqlProperties(DynamicPropertyRegistry registry) {
 		registry.add("spring.datasource.url", () -> "jdbc:postgresql://localhost:%d/customdatabase".formatted(postgresHa.getServicePort("pg-0", 5432)));
-		registry.add("read-only.datasource.url", () -> "jdbc:postgresql://localhost:%d/customdatabase".formatted(postgresHa.getServicePort("pg-1", 5432)));
+		registry.add("read-only.datasource[0].url", () -> "jdbc:postgresql://localhost:%d/customdatabase".formatted(postgresHa.getServicePort("pg-1", 5432)));
 	}
 
 	Entry fixture(Integer entryId) {
@@ -0,0 +1,44 @@
+package hajiboot.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import hajiboot.util.FileLoader;
+
+import org.springframework.aot.generate.GeneratedMethod;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.javapoet.CodeBlock;
+
+/**
+ * Embeds the SQL files into the generated bean factory initialization code during AOT
+ * processing ({@code spring-boot:process-aot} or a native build), so that the
+ * application reads no SQL resource at runtime.
+ */
+class SqlAotProcessor implements BeanFactoryInitializationAotProcessor {
+	@Override
+	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+		final PathMatchingResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver(
+				beanFactory.getBeanClassLoader());
+		final Map<String, String> files = new LinkedHashMap<>();
+		for (String directory : SqlConfig.SQL_DIRECTORIES) {
+			for (String file : FileLoader.list(resourcePatternResolver, directory, ".sql")) {
+				files.put(file, FileLoader.loadAsString(file));
+			}
+		}
+		if (files.isEmpty()) {
+			return null;
+		}
+		return (generationContext, code) -> {
+			files.keySet().forEach(file -> generationContext.getRuntimeHints().resources().registerPattern(file));
+			final GeneratedMethod method = code.getMethods().add("embedSql", builder -> {
+				final CodeBlock.Builder body = CodeBlock.builder();
+				files.forEach((file, content) -> body.addStatement("$T.embed($S, $S)", FileLoader.class, file, content));
+				builder.addJavadoc("Embed SQL files.").addCode(body.build());
+			});
+			code.addInitializer(method.toMethodReference());
+		};
+	}
+}
@@ -0,0 +1,17 @@
+package hajiboot.config;
+
+import hajiboot.sql.SqlRegistry;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+@Configuration
+public class SqlConfig {
+	static final String[] SQL_DIRECTORIES = { "hajiboot/entry/EntryMapper" };
+
+	@Bean
+	public SqlRegistry sqlRegistry(ResourcePatternResolver resourcePatternResolver) {
+		return new SqlRegistry(resourcePatternResolver, SQL_DIRECTORIES);
+	}
+}
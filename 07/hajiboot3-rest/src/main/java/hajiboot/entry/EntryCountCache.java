@@ -0,0 +1,64 @@
+package hajiboot.entry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the exact number of entries for a short time. Writers invalidate the cache
+ * immediately and once more when their transaction completes, so a count loaded by
+ * another thread before the commit is not kept.
+ */
+class EntryCountCache {
+	private final long ttlNanos;
+
+	private volatile long count;
+
+	private volatile long expiresAt;
+
+	private volatile boolean valid;
+
+	private long generation;
+
+	EntryCountCache(Duration ttl) {
+		this.ttlNanos = ttl.toNanos();
+	}
+
+	long get(LongSupplier loader) {
+		if (this.valid && System.nanoTime() - this.expiresAt < 0) {
+			return this.count;
+		}
+		final long generation;
+		synchronized (this) {
+			generation = this.generation;
+		}
+		final long count = loader.getAsLong();
+		synchronized (this) {
+			if (generation == this.generation) {
+				this.count = count;
+				this.expiresAt = System.nanoTime() + this.ttlNanos;
+				this.valid = this.ttlNanos > 0;
+			}
+		}
+		return count;
+	}
+
+	void invalidate() {
+		invalidateNow();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidateNow();
+				}
+			});
+		}
+	}
+
+	private synchronized void invalidateNow() {
+		this.generation++;
+		this.valid = false;
+	}
+}
@@ -0,0 +1,67 @@
+package hajiboot.entry;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Encodes entries as rows for {@code COPY entry FROM STDIN WITH (FORMAT csv)}. Every
+ * non-null value is quoted, so an empty string stays distinct from {@code NULL}, and
+ * tags are written as a {@code text[]} literal whose elements are quoted as well, so
+ * commas, quotes and backslashes in a tag survive.
+ */
+class EntryCsvWriter {
+	private final StringBuilder buffer;
+
+	EntryCsvWriter(StringBuilder buffer) {
+		this.buffer = buffer;
+	}
+
+	void append(Entry entry) {
+		field(entry.entryId() == null ? null : entry.entryId().toString()).append(',');
+		field(entry.title()).append(',');
+		field(entry.content()).append(',');
+		field(arrayLiteral(entry.tags())).append(',');
+		field(entry.created().name()).append(',');
+		field(timestamp(entry.created().date())).append(',');
+		field(entry.lastModified().name()).append(',');
+		field(timestamp(entry.lastModified().date())).append('\n');
+	}
+
+	private StringBuilder field(String value) {
+		if (value == null) {
+			return this.buffer;
+		}
+		this.buffer.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c == '"') {
+				this.buffer.append('"');
+			}
+			this.buffer.append(c);
+		}
+		return this.buffer.append('"');
+	}
+
+	static String arrayLiteral(Set<Tag> tags) {
+		final StringBuilder literal = new StringBuilder().append('{');
+		for (Tag tag : tags) {
+			if (literal.length() > 1) {
+				literal.append(',');
+			}
+			literal.append('"');
+			for (int i = 0; i < tag.name().length(); i++) {
+				final char c = tag.name().charAt(i);
+				if (c == '"' || c == '\\') {
+					literal.append('\\');
+				}
+				literal.append(c);
+			}
+			literal.append('"');
+		}
+		return literal.append('}').toString();
+	}
+
+	private static String timestamp(Instant instant) {
+		return instant == null ? null : instant.toString();
+	}
+}
@@ -0,0 +1,51 @@
+package hajiboot.entry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Hands out entry ids from blocks reserved from {@code entry_id_seq} in a single round
+ * trip. Taking an id from the current block is a lock-free increment; only the thread
+ * that finds the block exhausted reserves the next one. Ids left in a block when the
+ * application stops are never used, which is no different from a rolled-back
+ * {@code nextval}.
+ */
+class EntryIdAllocator {
+	private final int blockSize;
+
+	private final IntFunction<int[]> reserve;
+
+	private volatile Block block = new Block(new int[0]);
+
+	/**
+	 * @param reserve reserves the given number of ids from the sequence
+	 */
+	EntryIdAllocator(int blockSize, IntFunction<int[]> reserve) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+		}
+		this.blockSize = blockSize;
+		this.reserve = reserve;
+	}
+
+	int next() {
+		while (true) {
+			final Block block = this.block;
+			final int index = block.next.getAndIncrement();
+			if (index < block.ids.length) {
+				return block.ids[index];
+			}
+			synchronized (this) {
+				if (this.block == block) {
+					this.block = new Block(this.reserve.apply(this.blockSize));
+				}
+			}
+		}
+	}
+
+	private record Block(int[] ids, AtomicInteger next) {
+		Block(int[] ids) {
+			this(ids, new AtomicInteger());
+		}
+	}
+}
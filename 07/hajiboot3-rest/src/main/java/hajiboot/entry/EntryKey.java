@@ -0,0 +1,25 @@
+package hajiboot.entry;
+
+import java.time.Instant;
+
+/**
+ * Unique sort key of entries, {@code (last_modified_date, entry_id)}.
+ */
+public record EntryKey(Instant lastModifiedDate, int entryId) {
+	public static EntryKey of(Entry entry) {
+		return new EntryKey(entry.lastModified().date(), entry.entryId());
+	}
+
+	public static EntryKey parse(String text) {
+		final String[] parts = text.split("[.,]", 3);
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Invalid entry key: " + text);
+		}
+		return new EntryKey(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+				Integer.parseInt(parts[2]));
+	}
+
+	public String format() {
+		return "%d.%d,%d".formatted(this.lastModifiedDate.getEpochSecond(), this.lastModifiedDate.getNano(), this.entryId);
+	}
+}
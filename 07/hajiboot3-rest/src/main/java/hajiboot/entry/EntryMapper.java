@@ -1,22 +1,33 @@
 package hajiboot.entry;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import hajiboot.pagination.CursorPage;
 import hajiboot.pagination.CursorPageRequest;
 import hajiboot.pagination.CursorPageRequest.Navigation;
 import hajiboot.pagination.OffsetPage;
 import hajiboot.pagination.OffsetPageRequest;
-import hajiboot.util.FileLoader;
+import hajiboot.pagination.TotalCount;
+import hajiboot.sql.SqlRegistry;
+import hajiboot.sql.SqlStatement;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -26,55 +37,196 @@ import org.springframework.transaction.annotation.Transactional;
 public class EntryMapper {
 	private final JdbcTemplate jdbcTemplate;
 
-	public EntryMapper(JdbcTemplate jdbcTemplate) {
+	private final SqlStatement findOneSql;
+
+	private final SqlStatement findAllSql;
+
+	private final SqlStatement countSql;
+
+	private final SqlStatement countEstimateSql;
+
+	private final SqlStatement findAllOffsetSql;
+
+	private final SqlStatement findAllOffsetFromKeySql;
+
+	private final SqlStatement findKeyAtOffsetSql;
+
+	private final SqlStatement findAllCursorNextSql;
+
+	private final SqlStatement findAllCursorPreviousSql;
+
+	private final SqlStatement findAllKeysetNextSql;
+
+	private final SqlStatement findAllKeysetPreviousSql;
+
+	private final SqlStatement findByTagSql;
+
+	private final SqlStatement nextEntryIdsSql;
+
+	private final SqlStatement insertSql;
+
+	private final SqlStatement updateSql;
+
+	private final SqlStatement deleteSql;
+
+	private final SqlStatement copySql;
+
+	private final SqlStatement insertAllSql;
+
+	static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private final TagPool tagPool = new TagPool(10_000);
+
+	private final EntryCountCache countCache;
+
+	private final PageAnchorIndex pageAnchors;
+
+	private final int insertChunkSize;
+
+	private final EntryIdAllocator idAllocator;
+
+	public EntryMapper(JdbcTemplate jdbcTemplate, SqlRegistry sqlRegistry,
+			@Value("${entry.count-cache.ttl:5s}") Duration countCacheTtl,
+			@Value("${entry.page-anchor.stride:1000}") int pageAnchorStride,
+			@Value("${entry.page-anchor.ttl:10m}") Duration pageAnchorTtl,
+			@Value("${entry.insert.chunk-size:100}") int insertChunkSize,
+			@Value("${entry.id-block-size:50}") int idBlockSize) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.insertChunkSize = insertChunkSize;
+		this.idAllocator = new EntryIdAllocator(idBlockSize, this::reserveEntryIds);
+		this.countCache = new EntryCountCache(countCacheTtl);
+		this.pageAnchors = new PageAnchorIndex(pageAnchorStride, 10_000, pageAnchorTtl);
+		this.findOneSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findOne.sql");
+		this.findAllSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAll.sql");
+		this.countSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/count.sql");
+		this.countEstimateSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/countEstimate.sql");
+		this.findAllOffsetSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllOffset.sql");
+		this.findAllOffsetFromKeySql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllOffsetFromKey.sql");
+		this.findKeyAtOffsetSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findKeyAtOffset.sql");
+		this.findAllCursorNextSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllCursorNext.sql");
+		this.findAllCursorPreviousSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllCursorPrevious.sql");
+		this.findAllKeysetNextSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllKeysetNext.sql");
+		this.findAllKeysetPreviousSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllKeysetPrevious.sql");
+		this.findByTagSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/findByTag.sql");
+		this.nextEntryIdsSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/nextEntryIds.sql");
+		this.insertSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/insert.sql");
+		this.updateSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/update.sql");
+		this.deleteSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/delete.sql");
+		this.copySql = sqlRegistry.statement("hajiboot/entry/EntryMapper/copy.sql");
+		this.insertAllSql = sqlRegistry.statement("hajiboot/entry/EntryMapper/insertAll.sql");
 	}
 
-	private final RowMapper<Entry> rowMapper = (rs, rowNum) -> {
-		int entryId = rs.getInt("entry_id");
-		String title = rs.getString("title");
-		String content = rs.getString("content");
-		Set<Tag> tags = Arrays.stream((Object[]) rs.getArray("tags").getArray())
-				.map(String.class::cast).map(Tag::new)
-				.collect(Collectors.toUnmodifiableSet());
-		UpdateMeta created = new UpdateMeta(rs.getString("created_by"),
-				rs.getTimestamp("created_date").toInstant());
-		UpdateMeta lastModified = new UpdateMeta(rs.getString("last_modified_by"),
-				rs.getTimestamp("last_modified_date").toInstant());
-		return new Entry(entryId, title, content, tags, created,
-				lastModified);
-	};
+	private RowMapper<Entry> rowMapper() {
+		return new EntryRowMapper(this.tagPool);
+	}
 
 	public Optional<Entry> findOne(Integer entryId) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/findOne.sql");
-		return Optional.ofNullable(DataAccessUtils.uniqueResult(this.jdbcTemplate.query(sql, this.rowMapper, entryId)));
+		return Optional.ofNullable(DataAccessUtils.uniqueResult(
+				this.findOneSql.execute(sql -> this.jdbcTemplate.query(sql, this.rowMapper(), entryId))));
 	}
 
 	public List<Entry> findAll() {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/findAll.sql");
-		return this.jdbcTemplate.query(sql, this.rowMapper);
+		return this.findAllSql.execute(sql -> this.jdbcTemplate.query(sql, this.rowMapper()));
+	}
+
+	/**
+	 * Streams every entry to the given action without holding the whole table in memory.
+	 * The read-only transaction disables auto-commit so that PostgreSQL fetches the rows
+	 * through a cursor, {@code spring.jdbc.template.fetch-size} rows at a time.
+	 * @return the number of entries
+	 */
+	@Transactional(readOnly = true)
+	public long streamAll(Consumer<? super Entry> action) {
+		return this.findAllSql.execute(sql -> {
+			try (Stream<Entry> stream = this.jdbcTemplate.queryForStream(sql, this.rowMapper())) {
+				final Iterator<Entry> iterator = stream.iterator();
+				long count = 0;
+				while (iterator.hasNext()) {
+					action.accept(iterator.next());
+					count++;
+				}
+				return count;
+			}
+		});
 	}
 
 	public long count() {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/count.sql");
-		return Objects.requireNonNull(this.jdbcTemplate.queryForObject(sql, Long.class));
+		return Objects.requireNonNull(this.countSql.execute(sql -> this.jdbcTemplate.queryForObject(sql, Long.class)));
 	}
 
+	/**
+	 * Offsets beyond the first anchor stride are served as a keyset seek from the nearest
+	 * {@link PageAnchorIndex page anchor}, so once the anchor is built PostgreSQL skips
+	 * fewer than {@code stride} rows instead of {@code offset} rows.
+	 */
 	public OffsetPage<Entry> findAll(OffsetPageRequest pageRequest) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/findAllOffset.sql")
-				.formatted(pageRequest.offset(), pageRequest.pageSize());
-		List<Entry> content = this.jdbcTemplate.query(sql, this.rowMapper);
-		long totalElements = this.count();
-		return new OffsetPage<>(content, pageRequest.pageSize(), pageRequest.pageNumber(), totalElements);
+		int pageSizePlus1 = pageRequest.pageSize() + 1;
+		List<Entry> contentPlus1;
+		if (pageRequest.offset() < this.pageAnchors.stride()) {
+			contentPlus1 = this.findAllOffsetSql.execute(
+					sql -> this.jdbcTemplate.query(sql, this.rowMapper(), pageRequest.offset(), pageSizePlus1));
+		}
+		else {
+			final PageAnchorIndex.Anchor anchor = this.pageAnchors.seek(pageRequest.offset(), this::findKeyAt);
+			contentPlus1 = this.findAllOffsetFromKeySql.execute(sql -> this.jdbcTemplate.query(sql, this.rowMapper(),
+					keyParams(anchor.key(), pageRequest.offset() - anchor.offset(), pageSizePlus1)));
+		}
+		boolean hasNext = contentPlus1.size() == pageSizePlus1;
+		List<Entry> content = hasNext ? contentPlus1.subList(0, pageRequest.pageSize()) : contentPlus1;
+		TotalCount totalCount = Objects.requireNonNullElse(pageRequest.totalCount(), TotalCount.EXACT);
+		long totalElements = switch (totalCount) {
+			case EXACT -> this.countCache.get(this::count);
+			// statistics may lag behind, but never report fewer entries than seen
+			case ESTIMATE -> Math.max(this.countEstimate(), pageRequest.offset() + content.size() + (hasNext ? 1 : 0));
+			case NONE -> -1;
+		};
+		return new OffsetPage<>(content, pageRequest.pageSize(), pageRequest.pageNumber(), totalElements, totalCount, hasNext);
+	}
+
+	EntryKey findKeyAt(EntryKey from, long skip) {
+		return DataAccessUtils.singleResult(this.findKeyAtOffsetSql.execute(sql -> this.jdbcTemplate.query(sql,
+				(rs, i) -> new EntryKey(rs.getTimestamp(1).toInstant(), rs.getInt(2)), keyParams(from, skip))));
+	}
+
+	private static Object[] keyParams(EntryKey key, Object... rest) {
+		Object[] params = new Object[rest.length + 2];
+		params[0] = (key == null) ? null : Timestamp.from(key.lastModifiedDate());
+		params[1] = (key == null) ? null : key.entryId();
+		System.arraycopy(rest, 0, params, 2, rest.length);
+		return params;
 	}
 
+	public long countEstimate() {
+		return Objects.requireNonNull(
+				this.countEstimateSql.execute(sql -> this.jdbcTemplate.queryForObject(sql, Long.class)));
+	}
+
+	/**
+	 * @deprecated entries sharing a {@code last_modified_date} can be skipped or
+	 * duplicated; use {@link #findAllByKey(CursorPageRequest)}
+	 */
+	@Deprecated
 	public CursorPage<Entry, Instant> findAll(CursorPageRequest<Instant> pageRequest) {
-		Optional<Instant> cursor = pageRequest.cursorOptional();
+		return this.findPage(pageRequest, this.findAllCursorNextSql, this.findAllCursorPreviousSql,
+				cursor -> new Object[] { cursor.map(Timestamp::from).orElse(null) }, e -> e.lastModified().date());
+	}
+
+	public CursorPage<Entry, EntryKey> findAllByKey(CursorPageRequest<EntryKey> pageRequest) {
+		return this.findPage(pageRequest, this.findAllKeysetNextSql, this.findAllKeysetPreviousSql,
+				cursor -> new Object[] { cursor.map(k -> Timestamp.from(k.lastModifiedDate())).orElse(null),
+						cursor.map(EntryKey::entryId).orElse(null) }, EntryKey::of);
+	}
+
+	private <C> CursorPage<Entry, C> findPage(CursorPageRequest<C> pageRequest, SqlStatement nextSql,
+			SqlStatement previousSql, Function<Optional<C>, Object[]> cursorParams, Function<Entry, C> toCursor) {
+		Optional<C> cursor = pageRequest.cursorOptional();
 		Navigation navigation = Objects.requireNonNull(pageRequest.navigation());
 		int pageSizePlus1 = pageRequest.pageSize() + 1;
-		String sql = FileLoader.loadSqlAsString(navigation.isNext() ? "hajiboot/entry/EntryMapper/findAllCursorNext.sql" : "hajiboot/entry/EntryMapper/findAllCursorPrevious.sql")
-				.formatted(pageSizePlus1);
-		List<Entry> contentPlus1 = this.jdbcTemplate.query(sql, this.rowMapper, cursor.map(Timestamp::from).orElse(null));
+		SqlStatement statement = navigation.isNext() ? nextSql : previousSql;
+		Object[] cursorValues = cursorParams.apply(cursor);
+		Object[] params = Arrays.copyOf(cursorValues, cursorValues.length + 1);
+		params[cursorValues.length] = pageSizePlus1;
+		List<Entry> contentPlus1 = statement.execute(sql -> this.jdbcTemplate.query(sql, this.rowMapper(), params));
 		boolean hasPrevious;
 		boolean hasNext;
 		List<Entry> content;
@@ -88,51 +240,120 @@ public class EntryMapper {
 			hasNext = cursor.isPresent();
 			content = hasPrevious ? contentPlus1.subList(1, pageSizePlus1) : contentPlus1;
 		}
-		return new CursorPage<>(content, pageRequest.pageSize(), e -> e.lastModified().date(), hasPrevious, hasNext);
-
+		return new CursorPage<>(content, pageRequest.pageSize(), toCursor, hasPrevious, hasNext);
 	}
 
 	public List<Entry> findByTag(Tag tag) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/findByTag.sql");
-		return this.jdbcTemplate.query(sql, this.rowMapper, tag.name());
+		return this.findByTagSql.execute(sql -> this.jdbcTemplate.query(sql, this.rowMapper(), tag.name()));
 	}
 
+	/**
+	 * @return an id from {@code entry_id_seq}, reserved in blocks of
+	 * {@code entry.id-block-size}
+	 * @see EntryIdAllocator
+	 */
 	public Integer nextEntryId() {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/nextEntryId.sql");
-		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+		return this.idAllocator.next();
+	}
+
+	private int[] reserveEntryIds(int count) {
+		return this.nextEntryIdsSql.execute(sql -> this.jdbcTemplate.queryForList(sql, Integer.class, count))
+				.stream()
+				.mapToInt(Integer::intValue)
+				.toArray();
 	}
 
 	@Transactional
 	public int insert(Entry entry) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/insert.sql");
-		return this.jdbcTemplate.update(sql, entry.entryId(), entry.title(), entry.content(),
-				entry.tags().stream().map(Tag::name).collect(Collectors.joining(",")),
+		this.countCache.invalidate();
+		final int inserted = this.insertSql.execute(sql -> this.jdbcTemplate.update(sql, entry.entryId(), entry.title(),
+				entry.content(), entry.tags().stream().map(Tag::name).toArray(String[]::new),
 				entry.created().name(), entry.created().toTimestamp(),
-				entry.lastModified().name(), entry.lastModified().toTimestamp());
+				entry.lastModified().name(), entry.lastModified().toTimestamp()));
+		this.pageAnchors.inserted(List.of(EntryKey.of(entry)));
+		return inserted;
 	}
 
 	@Transactional
 	public int update(Entry entry) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/update.sql");
-		return this.jdbcTemplate.update(sql, entry.title(), entry.content(),
-				entry.tags().stream().map(Tag::name).collect(Collectors.joining(",")), entry.created().name(), entry.created().toTimestamp(),
-				entry.lastModified().name(), entry.lastModified().toTimestamp(), entry.entryId());
+		// update.sql returns the previous last_modified_date
+		final List<Instant> previous = this.updateSql.execute(sql -> this.jdbcTemplate.query(sql,
+				(rs, i) -> rs.getTimestamp(1).toInstant(), entry.title(), entry.content(),
+				entry.tags().stream().map(Tag::name).toArray(String[]::new), entry.created().name(), entry.created().toTimestamp(),
+				entry.lastModified().name(), entry.lastModified().toTimestamp(), entry.entryId()));
+		previous.forEach(date -> this.pageAnchors.moved(new EntryKey(date, entry.entryId()), EntryKey.of(entry)));
+		return previous.size();
 	}
 
 	@Transactional
 	public int delete(Integer entryId) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/delete.sql");
-		return this.jdbcTemplate.update(sql, entryId);
+		this.countCache.invalidate();
+		// delete.sql returns the last_modified_date of the deleted entry
+		final List<Instant> deleted = this.deleteSql.execute(
+				sql -> this.jdbcTemplate.query(sql, (rs, i) -> rs.getTimestamp(1).toInstant(), entryId));
+		deleted.forEach(date -> this.pageAnchors.deleted(new EntryKey(date, entryId)));
+		return deleted.size();
 	}
 
 	@Transactional
 	public int insertAll(List<Entry> entries) {
-		String sql = FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/insert.sql");
-		final int[] updated = this.jdbcTemplate.batchUpdate(sql, entries.stream()
-				.map(entry -> new Object[] { entry.entryId(), entry.title(), entry.content(),
-						entry.tags().stream().map(Tag::name).collect(Collectors.joining(",")), entry.created().name(), entry.created().toTimestamp(),
-						entry.lastModified().name(), entry.lastModified().toTimestamp() })
-				.toList());
-		return Arrays.stream(updated).sum();
-	}
-}
\ No newline at end of file
+		return this.insertAll(entries, this.insertChunkSize);
+	}
+
+	/**
+	 * Inserts entries with multi-row {@code INSERT} statements of {@code chunkSize}
+	 * rows each.
+	 * @see EntryBatchWriter
+	 */
+	@Transactional
+	public int insertAll(List<Entry> entries, int chunkSize) {
+		this.countCache.invalidate();
+		// one statement per full chunk plus one for the remainder
+		final int inserted = this.insertAllSql.execute((entries.size() + chunkSize - 1) / chunkSize,
+				sql -> new EntryBatchWriter(sql).insertAll(this.jdbcTemplate, entries, chunkSize));
+		this.pageAnchors.inserted(entries.stream().map(EntryKey::of).toList());
+		return inserted;
+	}
+
+	/**
+	 * Bulk loads entries with {@code COPY ... FROM STDIN}. Rows are encoded as CSV and
+	 * sent to the server {@value #COPY_BUFFER_SIZE} characters at a time, so memory stays
+	 * bounded however many entries the iterator yields.
+	 * @return the number of entries loaded
+	 */
+	@Transactional
+	public long copyAll(Iterator<? extends Entry> entries) {
+		this.countCache.invalidate();
+		this.pageAnchors.invalidate();
+		return Objects.requireNonNull(this.copySql.execute(sql -> copy(sql, entries)));
+	}
+
+	private Long copy(String sql, Iterator<? extends Entry> entries) {
+		return this.jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+			final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+			try {
+				final StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+				final EntryCsvWriter writer = new EntryCsvWriter(buffer);
+				while (entries.hasNext()) {
+					writer.append(entries.next());
+					if (buffer.length() >= COPY_BUFFER_SIZE) {
+						writeToCopy(copyIn, buffer);
+					}
+				}
+				writeToCopy(copyIn, buffer);
+				return copyIn.endCopy();
+			}
+			finally {
+				if (copyIn.isActive()) {
+					copyIn.cancelCopy();
+				}
+			}
+		});
+	}
+
+	private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+		final byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+		copyIn.writeToCopy(bytes, 0, bytes.length);
+		buffer.setLength(0);
+	}
+}
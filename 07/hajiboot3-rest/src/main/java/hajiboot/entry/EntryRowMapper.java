@@ -0,0 +1,73 @@
+package hajiboot.entry;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Maps the {@code entry} columns by index. The indices are resolved from the first row,
+ * so an instance must only be used for a single query.
+ */
+class EntryRowMapper implements RowMapper<Entry> {
+	private final TagPool tagPool;
+
+	private int entryId;
+
+	private int title;
+
+	private int content;
+
+	private int tags;
+
+	private int createdBy;
+
+	private int createdDate;
+
+	private int lastModifiedBy;
+
+	private int lastModifiedDate;
+
+	EntryRowMapper(TagPool tagPool) {
+		this.tagPool = tagPool;
+	}
+
+	@Override
+	public Entry mapRow(ResultSet rs, int rowNum) throws SQLException {
+		if (this.entryId == 0) {
+			this.entryId = rs.findColumn("entry_id");
+			this.title = rs.findColumn("title");
+			this.content = rs.findColumn("content");
+			this.tags = rs.findColumn("tags");
+			this.createdBy = rs.findColumn("created_by");
+			this.createdDate = rs.findColumn("created_date");
+			this.lastModifiedBy = rs.findColumn("last_modified_by");
+			this.lastModifiedDate = rs.findColumn("last_modified_date");
+		}
+		final UpdateMeta created = new UpdateMeta(rs.getString(this.createdBy),
+				rs.getObject(this.createdDate, OffsetDateTime.class).toInstant());
+		final UpdateMeta lastModified = new UpdateMeta(rs.getString(this.lastModifiedBy),
+				rs.getObject(this.lastModifiedDate, OffsetDateTime.class).toInstant());
+		return new Entry(rs.getInt(this.entryId), rs.getString(this.title), rs.getString(this.content),
+				tags(rs.getArray(this.tags)), created, lastModified);
+	}
+
+	private Set<Tag> tags(Array array) throws SQLException {
+		try {
+			final Object[] names = (Object[]) array.getArray();
+			final Tag[] tags = new Tag[names.length];
+			for (int i = 0; i < names.length; i++) {
+				tags[i] = this.tagPool.intern((String) names[i]);
+			}
+			// unlike Set.of, copyOf tolerates duplicated tag names
+			return Set.copyOf(Arrays.asList(tags));
+		}
+		finally {
+			array.free();
+		}
+	}
+}
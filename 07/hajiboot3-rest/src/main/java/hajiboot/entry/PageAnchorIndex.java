@@ -0,0 +1,211 @@
+package hajiboot.entry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sparse in-memory index from row offsets to the {@link EntryKey} just before them, at
+ * most one anchor per {@code stride} rows. A deep offset is then served as a keyset seek
+ * from the nearest anchor plus a short {@code OFFSET}. A missing anchor is built lazily
+ * with a single keyset query that skips from the nearest anchor below it.
+ * <p>
+ * Writes through {@link EntryMapper} shift the anchors behind the written rows once the
+ * writing transaction commits, so the index stays warm. Until then, the writing
+ * transaction itself, which already sees its own rows, does not use anchors. As writes
+ * from other instances or outside {@link EntryMapper} go unnoticed, anchors are also
+ * dropped {@code ttl} after they were last dropped.
+ */
+class PageAnchorIndex {
+	// ascending (last_modified_date, entry_id); offsets grow the other way
+	private static final Comparator<EntryKey> KEY_ORDER = Comparator.comparing(EntryKey::lastModifiedDate)
+			.thenComparingInt(EntryKey::entryId);
+
+	private final int stride;
+
+	private final int maxAnchors;
+
+	private final long ttlNanos;
+
+	private volatile ConcurrentSkipListMap<Long, EntryKey> anchors = new ConcurrentSkipListMap<>();
+
+	private volatile long expiresAt;
+
+	PageAnchorIndex(int stride, int maxAnchors, Duration ttl) {
+		this.stride = stride;
+		this.maxAnchors = maxAnchors;
+		this.ttlNanos = ttl.toNanos();
+		this.expiresAt = System.nanoTime() + this.ttlNanos;
+	}
+
+	int stride() {
+		return this.stride;
+	}
+
+	/**
+	 * @return the anchor at or before the given offset, {@code key} being {@code null} at
+	 * offset 0
+	 */
+	Anchor seek(long offset, KeyLookup lookup) {
+		if (TransactionSynchronizationManager.hasResource(this)) {
+			return new Anchor(0, null); // this transaction has writes that the anchors do not reflect yet
+		}
+		if (System.nanoTime() - this.expiresAt >= 0) {
+			reset();
+		}
+		final ConcurrentSkipListMap<Long, EntryKey> anchors = this.anchors;
+		final long target = offset / this.stride * this.stride;
+		final Map.Entry<Long, EntryKey> floor = anchors.floorEntry(target);
+		final long floorOffset = (floor == null) ? 0 : floor.getKey();
+		final EntryKey floorKey = (floor == null) ? null : floor.getValue();
+		if (floorOffset == target) {
+			return new Anchor(floorOffset, floorKey);
+		}
+		final EntryKey key = lookup.keyAt(floorKey, target - floorOffset - 1);
+		if (key == null) {
+			return new Anchor(floorOffset, floorKey); // past the last row
+		}
+		if (anchors.size() < this.maxAnchors) {
+			anchors.put(target, key);
+		}
+		return new Anchor(target, key);
+	}
+
+	int size() {
+		return this.anchors.size();
+	}
+
+	/**
+	 * Rows with the given keys were inserted.
+	 */
+	void inserted(Collection<EntryKey> keys) {
+		shiftAfterCommit(keys, List.of());
+	}
+
+	/**
+	 * The row with the given key was deleted.
+	 */
+	void deleted(EntryKey key) {
+		shiftAfterCommit(List.of(), List.of(key));
+	}
+
+	/**
+	 * An update moved a row from one key to another.
+	 */
+	void moved(EntryKey from, EntryKey to) {
+		shiftAfterCommit(List.of(to), List.of(from));
+	}
+
+	/**
+	 * Drops every anchor, e.g. after a bulk load whose keys are not at hand.
+	 */
+	void invalidate() {
+		reset();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					reset();
+				}
+			});
+		}
+	}
+
+	private void reset() {
+		this.anchors = new ConcurrentSkipListMap<>();
+		this.expiresAt = System.nanoTime() + this.ttlNanos;
+	}
+
+	private void shiftAfterCommit(Collection<EntryKey> inserted, Collection<EntryKey> deleted) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			shift(inserted, deleted);
+			return;
+		}
+		// other transactions keep reading the rows as they were until the commit
+		PendingShift pending = (PendingShift) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			final PendingShift shift = new PendingShift(new ArrayList<>(), new ArrayList<>());
+			TransactionSynchronizationManager.bindResource(this, shift);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					shift(shift.inserted(), shift.deleted());
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(PageAnchorIndex.this);
+				}
+			});
+			pending = shift;
+		}
+		pending.inserted().addAll(inserted);
+		pending.deleted().addAll(deleted);
+	}
+
+	/**
+	 * Moves every anchor by the number of inserted rows before it, less the number of
+	 * deleted rows at or before it.
+	 */
+	synchronized void shift(Collection<EntryKey> inserted, Collection<EntryKey> deleted) {
+		final List<EntryKey> insertedKeys = sorted(inserted);
+		final List<EntryKey> deletedKeys = sorted(deleted);
+		final ConcurrentSkipListMap<Long, EntryKey> shifted = new ConcurrentSkipListMap<>();
+		this.anchors.forEach((offset, key) -> {
+			final long moved = offset + countAbove(insertedKeys, key, false) - countAbove(deletedKeys, key, true);
+			if (moved > 0) {
+				// deleting the row of an anchor leaves it and the anchor before it at the same offset
+				shifted.putIfAbsent(moved, key);
+			}
+		});
+		this.anchors = shifted;
+	}
+
+	private static List<EntryKey> sorted(Collection<EntryKey> keys) {
+		final List<EntryKey> sorted = new ArrayList<>(keys);
+		sorted.sort(KEY_ORDER);
+		return sorted;
+	}
+
+	/**
+	 * @return the number of sorted keys greater than (or equal to) the given key, i.e.
+	 * rows sorting before it
+	 */
+	private static int countAbove(List<EntryKey> sortedKeys, EntryKey key, boolean inclusive) {
+		int low = 0;
+		int high = sortedKeys.size();
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			final int compared = KEY_ORDER.compare(sortedKeys.get(mid), key);
+			if (compared < 0 || (compared == 0 && !inclusive)) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return sortedKeys.size() - low;
+	}
+
+	record Anchor(long offset, EntryKey key) {
+	}
+
+	private record PendingShift(List<EntryKey> inserted, List<EntryKey> deleted) {
+	}
+
+	@FunctionalInterface
+	interface KeyLookup {
+		/**
+		 * @return the key of the row {@code skip} rows after {@code from}, or
+		 * {@code null} if there is no such row
+		 */
+		EntryKey keyAt(EntryKey from, long skip);
+	}
+}
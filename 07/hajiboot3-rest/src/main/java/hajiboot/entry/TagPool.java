@@ -0,0 +1,33 @@
+package hajiboot.entry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares {@link Tag} instances for frequent tag names so that large result sets do not
+ * retain one {@link Tag} per row. The pool stops growing at {@code maxSize}.
+ */
+public class TagPool {
+	private final Map<String, Tag> tags = new ConcurrentHashMap<>();
+
+	private final int maxSize;
+
+	public TagPool(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public Tag intern(String name) {
+		final Tag tag = this.tags.get(name);
+		if (tag != null) {
+			return tag;
+		}
+		if (this.tags.size() >= this.maxSize) {
+			return new Tag(name);
+		}
+		return this.tags.computeIfAbsent(name, Tag::new);
+	}
+
+	public int size() {
+		return this.tags.size();
+	}
+}
@@ -1,13 +1,22 @@
 package hajiboot.entry.web;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Clock;
 import java.time.Duration;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import hajiboot.entry.Entry;
+import hajiboot.entry.EntryKey;
 import hajiboot.entry.EntryMapper;
+import hajiboot.pagination.CursorPageRequest;
 import hajiboot.pagination.OffsetPage;
 import hajiboot.pagination.OffsetPageRequest;
+import hajiboot.pagination.web.CursorPageResponse;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -32,9 +41,11 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @RestController
@@ -44,9 +55,12 @@ public class EntryController {
 
 	private final Clock clock;
 
-	public EntryController(EntryMapper entryMapper, Clock clock) {
+	private final ObjectMapper objectMapper;
+
+	public EntryController(EntryMapper entryMapper, Clock clock, ObjectMapper objectMapper) {
 		this.entryMapper = entryMapper;
 		this.clock = clock;
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping(path = "/entries/{entryId}")
@@ -86,12 +100,64 @@ public class EntryController {
 	@GetMapping(path = "/entries", produces = MediaType.APPLICATION_JSON_VALUE)
 	@Parameters({
 			@Parameter(name = "page", schema = @Schema(implementation = Integer.class, defaultValue = "0", requiredMode = RequiredMode.NOT_REQUIRED)),
-			@Parameter(name = "size", schema = @Schema(implementation = Integer.class, defaultValue = "20", requiredMode = RequiredMode.NOT_REQUIRED))
+			@Parameter(name = "size", schema = @Schema(implementation = Integer.class, defaultValue = "20", requiredMode = RequiredMode.NOT_REQUIRED)),
+			@Parameter(name = "count", description = "How to compute totalElements. 'none' returns -1 and only hasNext.",
+					schema = @Schema(type = "string", allowableValues = { "exact", "estimate", "none" }, defaultValue = "exact", requiredMode = RequiredMode.NOT_REQUIRED))
 	})
 	public OffsetPage<Entry> getEntries(@Parameter(hidden = true) OffsetPageRequest pageRequest) {
 		return this.entryMapper.findAll(pageRequest);
 	}
 
+	@GetMapping(path = "/entries", params = "cursor", produces = MediaType.APPLICATION_JSON_VALUE)
+	@Parameters({
+			@Parameter(name = "cursor", description = "Opaque token from 'next' or 'previous' of the previous response. Empty for the first page.",
+					schema = @Schema(type = "string", requiredMode = RequiredMode.REQUIRED)),
+			@Parameter(name = "size", schema = @Schema(implementation = Integer.class, defaultValue = "20", requiredMode = RequiredMode.NOT_REQUIRED))
+	})
+	public CursorPageResponse<Entry> getEntriesByCursor(@RequestParam String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		if (size < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"The size must be greater than 0. (size = %d)".formatted(size));
+		}
+		final CursorPageRequest<EntryKey> pageRequest;
+		try {
+			pageRequest = CursorPageRequest.fromToken(cursor, Math.min(size, 200), EntryKey::parse);
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The cursor is invalid.", e);
+		}
+		return CursorPageResponse.of(this.entryMapper.findAllByKey(pageRequest), EntryKey::format);
+	}
+
+	@GetMapping(path = "/entries", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@ApiResponses({
+			@ApiResponse(responseCode = "200",
+					content = @Content(schema = @Schema(implementation = Entry.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+	})
+	public ResponseEntity<StreamingResponseBody> exportEntries() {
+		final ObjectWriter writer = this.objectMapper.writerFor(Entry.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		final StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = this.objectMapper.createGenerator(outputStream)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setRootValueSeparator(null);
+				this.entryMapper.streamAll(entry -> {
+					try {
+						writer.writeValue(generator, entry);
+						generator.writeRaw('\n');
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(body);
+	}
+
 	@PostMapping(path = "/entries", consumes = MediaType.APPLICATION_JSON_VALUE)
 	@ApiResponses({
 			@ApiResponse(responseCode = "201",
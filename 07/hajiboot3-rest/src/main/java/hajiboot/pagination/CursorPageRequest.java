@@ -1,6 +1,9 @@
 package hajiboot.pagination;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Optional;
+import java.util.function.Function;
 
 public record CursorPageRequest<C>(C cursor, int pageSize,
 								   Navigation navigation) {
@@ -9,6 +12,29 @@ public record CursorPageRequest<C>(C cursor, int pageSize,
 		return Optional.ofNullable(this.cursor);
 	}
 
+	/**
+	 * Builds a request from an opaque token created by {@link #toToken}. An empty token
+	 * requests the first page.
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static <C> CursorPageRequest<C> fromToken(String token, int pageSize, Function<String, C> decoder) {
+		if (token == null || token.isEmpty()) {
+			return new CursorPageRequest<>(null, pageSize, Navigation.NEXT);
+		}
+		final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		final int separator = decoded.indexOf(':');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor token: " + token);
+		}
+		final Navigation navigation = Navigation.valueOf(decoded.substring(0, separator));
+		return new CursorPageRequest<>(decoder.apply(decoded.substring(separator + 1)), pageSize, navigation);
+	}
+
+	public static <C> String toToken(C cursor, Navigation navigation, Function<C, String> encoder) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((navigation.name() + ":" + encoder.apply(cursor)).getBytes(StandardCharsets.UTF_8));
+	}
+
 	public enum Navigation {
 		NEXT, PREVIOUS;
 
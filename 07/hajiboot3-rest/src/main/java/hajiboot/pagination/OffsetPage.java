@@ -2,18 +2,29 @@ package hajiboot.pagination;
 
 import java.util.List;
 
+/**
+ * @param totalElements the total number of elements, or {@code -1} if not counted
+ */
 public record OffsetPage<T>(List<T> content, int size, int number,
-							long totalElements) {
+							long totalElements, TotalCount totalCount, boolean hasNext) {
 
-	public long totalPages() {
-		return this.size == 0 ? 1 : (int) Math.ceil((double) this.totalElements / (double) this.size);
+	public OffsetPage(List<T> content, int size, int number, long totalElements) {
+		this(content, size, number, totalElements, TotalCount.EXACT,
+				number + 1 < totalPages(size, totalElements));
 	}
 
-	public boolean hasNext() {
-		return this.number + 1 < this.totalPages();
+	public long totalPages() {
+		return totalPages(this.size, this.totalElements);
 	}
 
 	public boolean hasPrevious() {
 		return this.number > 0;
 	}
+
+	private static long totalPages(int size, long totalElements) {
+		if (totalElements < 0) {
+			return -1;
+		}
+		return size == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) size);
+	}
 }
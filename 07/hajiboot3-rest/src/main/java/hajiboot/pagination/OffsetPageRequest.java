@@ -1,7 +1,11 @@
 package hajiboot.pagination;
 
-public record OffsetPageRequest(int pageNumber, int pageSize) {
-	public int offset() {
-		return this.pageNumber * this.pageSize;
+public record OffsetPageRequest(int pageNumber, int pageSize, TotalCount totalCount) {
+	public OffsetPageRequest(int pageNumber, int pageSize) {
+		this(pageNumber, pageSize, TotalCount.EXACT);
+	}
+
+	public long offset() {
+		return (long) this.pageNumber * this.pageSize;
 	}
 }
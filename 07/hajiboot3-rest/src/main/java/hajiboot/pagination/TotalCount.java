@@ -0,0 +1,19 @@
+package hajiboot.pagination;
+
+/**
+ * How {@link OffsetPage#totalElements()} is computed.
+ */
+public enum TotalCount {
+	/**
+	 * Exact count, cached for a short time.
+	 */
+	EXACT,
+	/**
+	 * Estimate from database statistics.
+	 */
+	ESTIMATE,
+	/**
+	 * No total. Only {@link OffsetPage#hasNext()} is known.
+	 */
+	NONE
+}
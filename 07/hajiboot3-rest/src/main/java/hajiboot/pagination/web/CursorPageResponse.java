@@ -0,0 +1,22 @@
+package hajiboot.pagination.web;
+
+import java.util.List;
+import java.util.function.Function;
+
+import hajiboot.pagination.CursorPage;
+import hajiboot.pagination.CursorPageRequest;
+import hajiboot.pagination.CursorPageRequest.Navigation;
+
+/**
+ * JSON representation of a {@link CursorPage} with opaque tokens to fetch the
+ * neighbouring pages. A token is {@code null} when there is no such page.
+ */
+public record CursorPageResponse<T>(List<T> content, int size, String previous, String next) {
+	public static <T, C> CursorPageResponse<T> of(CursorPage<T, C> page, Function<C, String> encoder) {
+		final String previous = (page.hasPrevious() && page.tail() != null)
+				? CursorPageRequest.toToken(page.tail(), Navigation.PREVIOUS, encoder) : null;
+		final String next = (page.hasNext() && page.head() != null)
+				? CursorPageRequest.toToken(page.head(), Navigation.NEXT, encoder) : null;
+		return new CursorPageResponse<>(page.content(), page.size(), previous, next);
+	}
+}
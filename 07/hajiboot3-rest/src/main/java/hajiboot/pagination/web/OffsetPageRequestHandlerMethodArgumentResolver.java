@@ -1,17 +1,26 @@
 package hajiboot.pagination.web;
 
+import java.util.Locale;
 import java.util.Objects;
 
 import hajiboot.pagination.OffsetPageRequest;
+import hajiboot.pagination.TotalCount;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
 
 public class OffsetPageRequestHandlerMethodArgumentResolver
 		implements HandlerMethodArgumentResolver {
+	/**
+	 * Deeper pages are rejected; cursor pagination serves them without skipping rows.
+	 */
+	public static final long MAX_OFFSET = 1_000_000;
+
 	@Override
 	public boolean supportsParameter(MethodParameter parameter) {
 		return OffsetPageRequest.class.equals(parameter.getParameterType());
@@ -25,6 +34,29 @@ public class OffsetPageRequestHandlerMethodArgumentResolver
 				Objects.requireNonNullElse(webRequest.getParameter("page"), "0"));
 		final int size = Integer.parseInt(
 				Objects.requireNonNullElse(webRequest.getParameter("size"), "20"));
-		return new OffsetPageRequest(page, Math.min(size, 200));
+		final String count = Objects.requireNonNullElse(webRequest.getParameter("count"), "exact");
+		final TotalCount totalCount;
+		try {
+			totalCount = TotalCount.valueOf(count.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"The count must be one of exact, estimate or none. (count = %s)".formatted(count), e);
+		}
+		if (page < 0) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"The page must not be negative. (page = %d)".formatted(page));
+		}
+		if (size < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"The size must be at least 1. (size = %d)".formatted(size));
+		}
+		final OffsetPageRequest pageRequest = new OffsetPageRequest(page, Math.min(size, 200), totalCount);
+		if (pageRequest.offset() > MAX_OFFSET) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Pages beyond offset %d are not served. Use the cursor parameter instead. (page = %d, size = %d)"
+							.formatted(MAX_OFFSET, page, pageRequest.pageSize()));
+		}
+		return pageRequest;
 	}
 }
\ No newline at end of file
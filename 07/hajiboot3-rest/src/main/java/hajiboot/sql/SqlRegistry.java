@@ -0,0 +1,75 @@
+package hajiboot.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import hajiboot.util.FileLoader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+/**
+ * Loads, comments and validates every {@code *.sql} file under the given classpath
+ * directories when the context is refreshed, so the first request does not pay for I/O.
+ * Statements are looked up by their classpath location such as
+ * {@code hajiboot/entry/EntryMapper/findOne.sql}. Executions are published per statement
+ * as the {@code sql.statement.executions} counter.
+ */
+public class SqlRegistry implements MeterBinder {
+	private static final Pattern FORMAT_SPECIFIER = Pattern.compile("%[-#+ 0,(]*\\d*[sdf]");
+
+	// string literals, quoted identifiers and comments, where a % is just text
+	private static final Pattern QUOTED_OR_COMMENT = Pattern.compile(
+			"'[^']*(?:''[^']*)*'|\"[^\"]*(?:\"\"[^\"]*)*\"|--[^\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+
+	private final Map<String, SqlStatement> statements;
+
+	public SqlRegistry(ResourcePatternResolver resourcePatternResolver, String... directories) {
+		final Map<String, SqlStatement> statements = new LinkedHashMap<>();
+		for (String directory : directories) {
+			for (String name : FileLoader.list(resourcePatternResolver, directory, ".sql")) {
+				final String sql = FileLoader.loadAsString(name).strip();
+				validate(name, sql);
+				statements.put(name, new SqlStatement(name, "/* %s */ %s".formatted(name, sql)));
+			}
+		}
+		this.statements = Collections.unmodifiableMap(statements);
+	}
+
+	public SqlStatement statement(String name) {
+		final SqlStatement statement = this.statements.get(name);
+		if (statement == null) {
+			throw new IllegalArgumentException("SQL '%s' is not registered.".formatted(name));
+		}
+		return statement;
+	}
+
+	public Map<String, Long> executions() {
+		final Map<String, Long> executions = new LinkedHashMap<>();
+		this.statements.forEach((name, statement) -> executions.put(name, statement.executions()));
+		return executions;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.statements.forEach((name, statement) -> FunctionCounter
+				.builder("sql.statement.executions", statement, SqlStatement::executions)
+				.tag("statement", name)
+				.description("Successful executions of the statement")
+				.register(registry));
+	}
+
+	static void validate(String name, String sql) {
+		if (sql.isEmpty()) {
+			throw new IllegalStateException("SQL '%s' is empty.".formatted(name));
+		}
+		if (FORMAT_SPECIFIER.matcher(QUOTED_OR_COMMENT.matcher(sql).replaceAll(" ")).find()) {
+			throw new IllegalStateException(
+					"SQL '%s' contains a format specifier. Use bind parameters instead.".formatted(name));
+		}
+	}
+}
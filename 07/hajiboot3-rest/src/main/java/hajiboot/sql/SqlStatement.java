@@ -0,0 +1,56 @@
+package hajiboot.sql;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Immutable, pre-commented SQL text loaded once at startup. The text never changes per
+ * call so that the JDBC driver's server-side prepared statement cache can hit.
+ */
+public final class SqlStatement {
+	private final String name;
+
+	private final String sql;
+
+	private final LongAdder executions = new LongAdder();
+
+	SqlStatement(String name, String sql) {
+		this.name = name;
+		this.sql = sql;
+	}
+
+	public String name() {
+		return this.name;
+	}
+
+	public String sql() {
+		return this.sql;
+	}
+
+	/**
+	 * Runs this statement through the given action and counts one execution once it
+	 * returns; statements that fail are not counted.
+	 */
+	public <T> T execute(Function<String, T> action) {
+		return execute(1, action);
+	}
+
+	/**
+	 * Like {@link #execute(Function)} for an action that runs this statement
+	 * {@code statements} times, e.g. as a JDBC batch.
+	 */
+	public <T> T execute(int statements, Function<String, T> action) {
+		final T result = action.apply(this.sql);
+		this.executions.add(statements);
+		return result;
+	}
+
+	public long executions() {
+		return this.executions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return this.sql;
+	}
+}
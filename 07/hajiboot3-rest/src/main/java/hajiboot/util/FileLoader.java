@@ -1,20 +1,38 @@
 package hajiboot.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.StreamUtils;
 
+/**
+ * Loads classpath resources through {@link Resource#getInputStream()} so that it works
+ * from a packaged jar and from a native image. Resources can be embedded ahead of time
+ * with {@link #embed(String, String)}; embedded resources are never read from the
+ * classpath.
+ */
 public class FileLoader {
 	private static final Map<String, String> cache = new ConcurrentHashMap<>();
 
+	private static final Map<String, String> embedded = new ConcurrentHashMap<>();
+
 	public static String loadAsString(String file) {
+		final String content = embedded.get(file);
+		if (content != null) {
+			return content;
+		}
 		return cache.computeIfAbsent(file, f -> {
-			try {
-				return Files.readString(new ClassPathResource(file).getFile().toPath());
+			try (InputStream stream = new ClassPathResource(f).getInputStream()) {
+				return StreamUtils.copyToString(stream, StandardCharsets.UTF_8);
 			}
 			catch (IOException e) {
 				throw new UncheckedIOException(e);
@@ -25,4 +43,34 @@ public class FileLoader {
 	public static String loadSqlAsString(String file) {
 		return "/* %s */ %s".formatted(file, loadAsString(file));
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Lists the files with the given extension directly under the classpath directory,
+	 * preferring embedded resources over classpath scanning.
+	 */
+	public static List<String> list(ResourcePatternResolver resourcePatternResolver, String directory,
+			String extension) {
+		final String prefix = directory + "/";
+		final List<String> files = embedded.keySet().stream()
+				.filter(f -> f.startsWith(prefix) && f.indexOf('/', prefix.length()) < 0 && f.endsWith(extension))
+				.sorted()
+				.toList();
+		if (!files.isEmpty()) {
+			return files;
+		}
+		try {
+			final List<String> scanned = new ArrayList<>();
+			for (Resource resource : resourcePatternResolver.getResources("classpath*:" + prefix + "*" + extension)) {
+				scanned.add(prefix + resource.getFilename());
+			}
+			return scanned;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static void embed(String file, String content) {
+		embedded.put(file, content);
+	}
+}
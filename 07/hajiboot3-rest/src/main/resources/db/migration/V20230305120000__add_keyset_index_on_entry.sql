@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS entry_last_modified_date_entry_id ON entry (last_modified_date DESC, entry_id DESC);
+
+DROP INDEX IF EXISTS entry_last_modified_date;
\ No newline at end of file
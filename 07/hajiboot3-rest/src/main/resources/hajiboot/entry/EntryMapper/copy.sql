@@ -0,0 +1,2 @@
+COPY entry (entry_id, title, content, tags, created_by, created_date, last_modified_by, last_modified_date)
+FROM STDIN WITH (FORMAT csv)
\ No newline at end of file
@@ -0,0 +1,3 @@
+SELECT GREATEST(reltuples, 0)::BIGINT
+FROM pg_class
+WHERE oid = 'entry'::regclass
\ No newline at end of file
@@ -1,3 +1,4 @@
 DELETE
 FROM entry
-WHERE entry_id = ?
\ No newline at end of file
+WHERE entry_id = ?
+RETURNING last_modified_date
\ No newline at end of file
@@ -7,4 +7,4 @@ SELECT entry_id,
        last_modified_by,
        last_modified_date
 FROM entry
-ORDER BY last_modified_date DESC
\ No newline at end of file
+ORDER BY last_modified_date DESC, entry_id DESC
\ No newline at end of file
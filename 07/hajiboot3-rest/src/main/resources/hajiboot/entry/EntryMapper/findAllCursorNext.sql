@@ -9,4 +9,4 @@ SELECT entry_id,
 FROM entry
 WHERE last_modified_date < COALESCE(?, 'infinity'::timestamptz)
 ORDER BY last_modified_date DESC
-LIMIT %d
\ No newline at end of file
+LIMIT ?
\ No newline at end of file
@@ -9,7 +9,7 @@ WITH page AS (SELECT entry_id,
               FROM entry
               WHERE last_modified_date > COALESCE(?, '-infinity'::timestamptz)
               ORDER BY last_modified_date ASC
-              LIMIT %d)
+              LIMIT ?)
 SELECT *
 FROM page
 ORDER BY last_modified_date DESC
\ No newline at end of file
@@ -7,5 +7,5 @@ SELECT entry_id,
        last_modified_by,
        last_modified_date
 FROM entry
-ORDER BY last_modified_date DESC
-OFFSET %d LIMIT %d
\ No newline at end of file
+ORDER BY last_modified_date DESC, entry_id DESC
+OFFSET ? LIMIT ?
\ No newline at end of file
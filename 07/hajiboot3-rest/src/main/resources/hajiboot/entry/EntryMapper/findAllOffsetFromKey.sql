@@ -0,0 +1,12 @@
+SELECT entry_id,
+       title,
+       '' AS content,
+       tags,
+       created_by,
+       created_date,
+       last_modified_by,
+       last_modified_date
+FROM entry
+WHERE (last_modified_date, entry_id) < (COALESCE(?, 'infinity'::timestamptz), COALESCE(?, 2147483647))
+ORDER BY last_modified_date DESC, entry_id DESC
+OFFSET ? LIMIT ?
\ No newline at end of file
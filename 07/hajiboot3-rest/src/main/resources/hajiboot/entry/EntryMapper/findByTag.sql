@@ -8,4 +8,4 @@ SELECT entry_id,
        last_modified_date
 FROM entry
 WHERE tags @> ARRAY[?]
-ORDER BY last_modified_date DESC
\ No newline at end of file
+ORDER BY last_modified_date DESC, entry_id DESC
\ No newline at end of file
@@ -0,0 +1,6 @@
+SELECT last_modified_date,
+       entry_id
+FROM entry
+WHERE (last_modified_date, entry_id) < (COALESCE(?, 'infinity'::timestamptz), COALESCE(?, 2147483647))
+ORDER BY last_modified_date DESC, entry_id DESC
+OFFSET ? LIMIT 1
\ No newline at end of file
@@ -1,3 +1,3 @@
 INSERT INTO entry(entry_id, title, content, tags, created_by, created_date,
                   last_modified_by, last_modified_date)
-VALUES (?, ?, ?, STRING_TO_ARRAY(?, ','), ?, ?, ?, ?)
\ No newline at end of file
+VALUES (?, ?, ?, ?, ?, ?, ?, ?)
\ No newline at end of file
@@ -1 +0,0 @@
-SELECT nextval('entry_id_seq')
\ No newline at end of file
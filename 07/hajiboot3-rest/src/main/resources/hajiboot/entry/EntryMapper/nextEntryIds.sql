@@ -0,0 +1,2 @@
+SELECT nextval('entry_id_seq')
+FROM generate_series(1, ?)
\ No newline at end of file
@@ -1,9 +1,12 @@
 UPDATE entry
 SET title              = ?,
     content            = ?,
-    tags               = STRING_TO_ARRAY(?, ','),
+    tags               = ?,
     created_by         = ?,
     created_date       = ?,
     last_modified_by   = ?,
     last_modified_date = ?
-WHERE entry_id = ?
\ No newline at end of file
+FROM entry AS previous
+WHERE entry.entry_id = ?
+  AND previous.entry_id = entry.entry_id
+RETURNING previous.last_modified_date
\ No newline at end of file
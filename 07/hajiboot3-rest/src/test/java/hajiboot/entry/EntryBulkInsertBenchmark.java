@@ -0,0 +1,110 @@
+package hajiboot.entry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import hajiboot.sql.SqlRegistry;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.postgresql.Driver;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+/**
+ * Compares {@link EntryMapper#insertAll(List, int)} (multi-row {@code INSERT} across
+ * chunk sizes, 1 being a plain JDBC batch) with
+ * {@link EntryMapper#copyAll(java.util.Iterator)} ({@code COPY ... FROM STDIN}) against
+ * a PostgreSQL container, reporting rows/s. Requires Docker. Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=hajiboot.entry.EntryBulkInsertBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntryBulkInsertBenchmark {
+	static final int ROWS = 10_000;
+
+	PostgreSQLContainer<?> postgres;
+
+	JdbcTemplate jdbcTemplate;
+
+	EntryMapper entryMapper;
+
+	List<Entry> entries;
+
+	@Setup
+	public void setup() {
+		this.postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+		this.postgres.start();
+		final SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new Driver(), this.postgres.getJdbcUrl(),
+				this.postgres.getUsername(), this.postgres.getPassword());
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.entryMapper = new EntryMapper(this.jdbcTemplate,
+				new SqlRegistry(new PathMatchingResourcePatternResolver(), "hajiboot/entry/EntryMapper"), Duration.ZERO,
+				1000, Duration.ZERO, 100, 50);
+		this.entries = new ArrayList<>(ROWS);
+		for (int i = 1; i <= ROWS; i++) {
+			final UpdateMeta updateMeta = new UpdateMeta("admin", Instant.parse("2023-02-10T00:00:00Z").plusSeconds(i));
+			this.entries.add(new Entry(i, "Title " + i, "Content " + i,
+					Set.of(new Tag("java"), new Tag("spring"), new Tag("tag " + (i % 10))), updateMeta, updateMeta));
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void truncate() {
+		this.jdbcTemplate.execute("TRUNCATE entry");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.postgres.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int insertAll(ChunkSize chunkSize) {
+		return this.entryMapper.insertAll(this.entries, chunkSize.value);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long copy() {
+		return this.entryMapper.copyAll(this.entries.iterator());
+	}
+
+	@State(Scope.Benchmark)
+	public static class ChunkSize {
+		@Param({ "1", "10", "100", "1000" })
+		int value;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(EntryBulkInsertBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,39 @@
+package hajiboot.entry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntryCountCacheTest {
+	AtomicLong loads = new AtomicLong();
+
+	@Test
+	void cacheUntilInvalidated() {
+		EntryCountCache cache = new EntryCountCache(Duration.ofMinutes(1));
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(1);
+		cache.invalidate();
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(2);
+	}
+
+	@Test
+	void expire() throws Exception {
+		EntryCountCache cache = new EntryCountCache(Duration.ofMillis(10));
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(1);
+		Thread.sleep(20);
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(2);
+	}
+
+	@Test
+	void discardLoadRacingWithInvalidation() {
+		EntryCountCache cache = new EntryCountCache(Duration.ofMinutes(1));
+		assertThat(cache.get(() -> {
+			cache.invalidate();
+			return 100;
+		})).isEqualTo(100);
+		assertThat(cache.get(this.loads::incrementAndGet)).isEqualTo(1);
+	}
+}
@@ -0,0 +1,37 @@
+package hajiboot.entry;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntryCsvWriterTest {
+	@Test
+	void append() {
+		final StringBuilder buffer = new StringBuilder();
+		final EntryCsvWriter writer = new EntryCsvWriter(buffer);
+		final Instant created = Instant.parse("2023-02-10T07:00:00Z");
+		final Instant lastModified = Instant.parse("2023-02-10T08:00:00.123456Z");
+		writer.append(new Entry(1, "title 1", "", Set.of(),
+				new UpdateMeta("user1", created), new UpdateMeta("user2", lastModified)));
+		writer.append(new Entry(2, "say \"hi\", bye", "line1\nline2", new LinkedHashSet<>(List.of(new Tag("a,b"), new Tag("c\"\\d"))),
+				new UpdateMeta("user1", created), new UpdateMeta("user2", lastModified)));
+
+		assertThat(buffer.toString()).isEqualTo("""
+				"1","title 1","","{}","user1","2023-02-10T07:00:00Z","user2","2023-02-10T08:00:00.123456Z"
+				"2","say ""hi"", bye","line1
+				line2","{""a,b"",""c\\""\\\\d""}","user1","2023-02-10T07:00:00Z","user2","2023-02-10T08:00:00.123456Z"
+				""");
+	}
+
+	@Test
+	void arrayLiteral() {
+		assertThat(EntryCsvWriter.arrayLiteral(Set.of())).isEqualTo("{}");
+		assertThat(EntryCsvWriter.arrayLiteral(new LinkedHashSet<>(List.of(new Tag("a"), new Tag("b c"), new Tag("d,\"e\"")))))
+				.isEqualTo("{\"a\",\"b c\",\"d,\\\"e\\\"\"}");
+	}
+}
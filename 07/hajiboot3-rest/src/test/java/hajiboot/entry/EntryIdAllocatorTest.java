@@ -0,0 +1,64 @@
+package hajiboot.entry;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntryIdAllocatorTest {
+	AtomicInteger sequence = new AtomicInteger();
+
+	AtomicInteger reservations = new AtomicInteger();
+
+	int[] reserve(int count) {
+		this.reservations.incrementAndGet();
+		return IntStream.range(0, count).map(i -> this.sequence.incrementAndGet()).toArray();
+	}
+
+	@Test
+	void nextFromBlock() {
+		final EntryIdAllocator allocator = new EntryIdAllocator(10, this::reserve);
+		assertThat(IntStream.range(0, 25).map(i -> allocator.next()).toArray())
+				.containsExactly(IntStream.rangeClosed(1, 25).toArray());
+		assertThat(this.reservations).hasValue(3);
+	}
+
+	@Test
+	void nextConcurrently() throws Exception {
+		final EntryIdAllocator allocator = new EntryIdAllocator(7, this::reserve);
+		final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<?>> futures = IntStream.range(0, 8)
+					.<Future<?>>mapToObj(t -> executor.submit(() -> {
+						for (int i = 0; i < 1000; i++) {
+							ids.add(allocator.next());
+						}
+					}))
+					.toList();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(ids).hasSize(8000);
+		// no block is reserved twice for the same exhaustion
+		assertThat(this.reservations.get()).isEqualTo((8000 + 6) / 7);
+	}
+
+	@Test
+	void invalidBlockSize() {
+		assertThatThrownBy(() -> new EntryIdAllocator(0, this::reserve)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
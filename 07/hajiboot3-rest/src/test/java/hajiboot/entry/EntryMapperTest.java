@@ -1,15 +1,20 @@
 package hajiboot.entry;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import hajiboot.config.SqlConfig;
 import hajiboot.pagination.CursorPage;
 import hajiboot.pagination.CursorPageRequest;
 import hajiboot.pagination.CursorPageRequest.Navigation;
 import hajiboot.pagination.OffsetPage;
 import hajiboot.pagination.OffsetPageRequest;
+import hajiboot.pagination.TotalCount;
 import org.junit.jupiter.api.Test;
 import org.postgresql.util.PSQLException;
 
@@ -28,10 +33,11 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 		"logging.level.sql=DEBUG",
 		"logging.level.org.springframework.jdbc.support.JdbcTransactionManager=DEBUG",
 		"spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
-		"spring.datasource.url=jdbc:tc:postgresql:14-alpine:///databasename"
+		"spring.datasource.url=jdbc:tc:postgresql:14-alpine:///databasename",
+		"entry.page-anchor.stride=2"
 })
 @AutoConfigureTestDatabase(replace = Replace.NONE)
-@Import(EntryMapper.class)
+@Import({ EntryMapper.class, SqlConfig.class })
 class EntryMapperTest {
 	@Autowired
 	EntryMapper entryMapper;
@@ -97,6 +103,51 @@ class EntryMapperTest {
 		assertThat(entries).containsExactly(entry3.withContent(""), entry2.withContent(""), entry1.withContent(""));
 	}
 
+	@Test
+	void insertAllAndStreamAll() {
+		Entry entry1 = fixture(this.entryMapper.nextEntryId());
+		Entry entry2 = fixture(this.entryMapper.nextEntryId());
+		Entry entry3 = fixture(this.entryMapper.nextEntryId());
+		this.entryMapper.insertAll(List.of(entry1, entry2, entry3));
+		List<Entry> entries = new ArrayList<>();
+		long count = this.entryMapper.streamAll(entries::add);
+		assertThat(count).isEqualTo(3);
+		assertThat(entries).containsExactly(entry3.withContent(""), entry2.withContent(""), entry1.withContent(""));
+	}
+
+	@Test
+	void insertAllInChunks() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		for (int chunkSize : new int[] { 1, 2, 3, 5, 8 }) {
+			List<Entry> entries = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				entries.add(new Entry(this.entryMapper.nextEntryId(), "title " + i, "content " + i,
+						Set.of(new Tag("a,b"), new Tag("c " + i)), new UpdateMeta("test", now),
+						new UpdateMeta("test", now.plusSeconds(i))));
+			}
+			int inserted = this.entryMapper.insertAll(entries, chunkSize);
+			assertThat(inserted).isEqualTo(5);
+			for (Entry entry : entries) {
+				assertThat(this.entryMapper.findOne(entry.entryId())).contains(entry);
+			}
+		}
+		assertThatThrownBy(() -> this.entryMapper.insertAll(List.of(), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void copyAll() {
+		Entry entry1 = fixture(this.entryMapper.nextEntryId());
+		Entry entry2 = new Entry(this.entryMapper.nextEntryId(), "\"quoted\", title", "line1\nline2",
+				Set.of(new Tag("a,b"), new Tag("\"c\""), new Tag("d\\e")),
+				new UpdateMeta("test", Instant.now().truncatedTo(ChronoUnit.MICROS)),
+				new UpdateMeta("test", Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		long copied = this.entryMapper.copyAll(List.of(entry1, entry2).iterator());
+		assertThat(copied).isEqualTo(2);
+		assertThat(this.entryMapper.findOne(entry1.entryId())).contains(entry1);
+		assertThat(this.entryMapper.findOne(entry2.entryId())).contains(entry2);
+		assertThat(this.entryMapper.count()).isEqualTo(2);
+	}
+
 	@Test
 	void findByTags() {
 		Entry entry1 = fixture(this.entryMapper.nextEntryId())
@@ -177,6 +228,60 @@ class EntryMapperTest {
 		assertThat(page2.totalElements()).isEqualTo(3);
 	}
 
+	@Test
+	void findAllOffset_withoutExactTotal() {
+		Entry entry1 = fixture(this.entryMapper.nextEntryId());
+		Entry entry2 = fixture(this.entryMapper.nextEntryId());
+		Entry entry3 = fixture(this.entryMapper.nextEntryId());
+		this.entryMapper.insertAll(List.of(entry1, entry2, entry3));
+
+		OffsetPage<Entry> none = this.entryMapper.findAll(new OffsetPageRequest(0, 2, TotalCount.NONE));
+		assertThat(none.content()).containsExactly(entry3.withContent(""), entry2.withContent(""));
+		assertThat(none.hasNext()).isTrue();
+		assertThat(none.totalElements()).isEqualTo(-1);
+		assertThat(none.totalPages()).isEqualTo(-1);
+
+		OffsetPage<Entry> estimate = this.entryMapper.findAll(new OffsetPageRequest(1, 2, TotalCount.ESTIMATE));
+		assertThat(estimate.content()).containsExactly(entry1.withContent(""));
+		assertThat(estimate.hasNext()).isFalse();
+		assertThat(estimate.totalElements()).isGreaterThanOrEqualTo(3);
+	}
+
+	@Test
+	void findAllOffset_cachedExactTotal() {
+		this.entryMapper.insert(fixture(this.entryMapper.nextEntryId()));
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(0, 2)).totalElements()).isEqualTo(1);
+		// invalidated by insert
+		this.entryMapper.insert(fixture(this.entryMapper.nextEntryId()));
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(0, 2)).totalElements()).isEqualTo(2);
+	}
+
+	@Test
+	void findAllOffset_fromPageAnchor() {
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			entries.add(fixture(this.entryMapper.nextEntryId()));
+		}
+		this.entryMapper.insertAll(entries);
+		List<Entry> expected = new ArrayList<>(entries.stream().map(e -> e.withContent("")).toList());
+		Collections.reverse(expected);
+
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(2, 2)).content())
+				.containsExactlyElementsOf(expected.subList(4, 6));
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(1, 3)).content())
+				.containsExactlyElementsOf(expected.subList(3, 6));
+		OffsetPage<Entry> last = this.entryMapper.findAll(new OffsetPageRequest(3, 2));
+		assertThat(last.content()).containsExactlyElementsOf(expected.subList(6, 7));
+		assertThat(last.hasNext()).isFalse();
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(10, 2)).content()).isEmpty();
+
+		// anchors shift when an update moves an entry to the top
+		Entry first = entries.get(0);
+		this.entryMapper.update(first.withLastModified(first.lastModified().withDate(Instant.now())));
+		assertThat(this.entryMapper.findAll(new OffsetPageRequest(3, 2)).content())
+				.containsExactlyElementsOf(expected.subList(5, 6));
+	}
+
 	@Test
 	void findAllCursorNext_empty() {
 		CursorPage<Entry, Instant> page = this.entryMapper.findAll(new CursorPageRequest<>(null, 10, Navigation.NEXT));
@@ -315,6 +420,29 @@ class EntryMapperTest {
 		assertThat(page1.head()).isEqualTo(entry3.lastModified().date());
 	}
 
+	@Test
+	void findAllByKey_sameLastModifiedDate() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			entries.add(fixture(this.entryMapper.nextEntryId()).withLastModified(new UpdateMeta("test", now)));
+		}
+		this.entryMapper.insertAll(entries);
+
+		CursorPage<Entry, EntryKey> page0 = this.entryMapper.findAllByKey(new CursorPageRequest<>(null, 2, Navigation.NEXT));
+		assertThat(page0.content()).containsExactly(entries.get(4).withContent(""), entries.get(3).withContent(""));
+		assertThat(page0.hasNext()).isTrue();
+		CursorPage<Entry, EntryKey> page1 = this.entryMapper.findAllByKey(new CursorPageRequest<>(page0.head(), 2, Navigation.NEXT));
+		assertThat(page1.content()).containsExactly(entries.get(2).withContent(""), entries.get(1).withContent(""));
+		CursorPage<Entry, EntryKey> page2 = this.entryMapper.findAllByKey(new CursorPageRequest<>(page1.head(), 2, Navigation.NEXT));
+		assertThat(page2.content()).containsExactly(entries.get(0).withContent(""));
+		assertThat(page2.hasNext()).isFalse();
+
+		CursorPage<Entry, EntryKey> previous = this.entryMapper.findAllByKey(new CursorPageRequest<>(page2.tail(), 2, Navigation.PREVIOUS));
+		assertThat(previous.content()).isEqualTo(page1.content());
+		assertThat(previous.hasPrevious()).isTrue();
+	}
+
 	@Test
 	@Transactional(readOnly = true)
 	void shouldFailWhenUpdatingInReadOnlyTransaction() {
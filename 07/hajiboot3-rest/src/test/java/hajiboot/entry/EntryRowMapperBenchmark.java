@@ -0,0 +1,133 @@
+package hajiboot.entry;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Compares the former name-based row mapper with {@link EntryRowMapper} over an
+ * in-memory {@link ResultSet}. Reports rows/s and, through the GC profiler,
+ * {@code gc.alloc.rate.norm} (bytes allocated per row). Run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=hajiboot.entry.EntryRowMapperBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntryRowMapperBenchmark {
+	static final int ROWS = 1000;
+
+	static final List<String> COLUMNS = List.of("entry_id", "title", "content", "tags", "created_by",
+			"created_date", "last_modified_by", "last_modified_date");
+
+	static final RowMapper<Entry> byName = (rs, rowNum) -> {
+		int entryId = rs.getInt("entry_id");
+		String title = rs.getString("title");
+		String content = rs.getString("content");
+		Set<Tag> tags = Arrays.stream((Object[]) rs.getArray("tags").getArray())
+				.map(String.class::cast).map(Tag::new)
+				.collect(Collectors.toUnmodifiableSet());
+		UpdateMeta created = new UpdateMeta(rs.getString("created_by"),
+				rs.getTimestamp("created_date").toInstant());
+		UpdateMeta lastModified = new UpdateMeta(rs.getString("last_modified_by"),
+				rs.getTimestamp("last_modified_date").toInstant());
+		return new Entry(entryId, title, content, tags, created, lastModified);
+	};
+
+	final TagPool tagPool = new TagPool(10_000);
+
+	Object[][] rows;
+
+	@Setup
+	public void setup() {
+		this.rows = new Object[ROWS][];
+		for (int i = 0; i < ROWS; i++) {
+			this.rows[i] = new Object[] { i, "Title " + i, "", new String[] { "java", "spring", "tag " + (i % 10) },
+					"admin", Instant.parse("2023-02-10T00:00:00Z").plusSeconds(i), "admin",
+					Instant.parse("2023-02-10T00:00:00Z").plusSeconds(i) };
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void mapByName(Blackhole blackhole) throws SQLException {
+		map(byName, blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void mapByIndex(Blackhole blackhole) throws SQLException {
+		map(new EntryRowMapper(this.tagPool), blackhole);
+	}
+
+	void map(RowMapper<Entry> rowMapper, Blackhole blackhole) throws SQLException {
+		final ResultSet rs = resultSet(this.rows);
+		for (int i = 0; rs.next(); i++) {
+			blackhole.consume(rowMapper.mapRow(rs, i));
+		}
+	}
+
+	/**
+	 * A minimal forward-only {@link ResultSet} that behaves like pgjdbc for the
+	 * {@code entry} columns.
+	 */
+	static ResultSet resultSet(Object[][] rows) {
+		final int[] cursor = { -1 };
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				(proxy, method, args) -> {
+					if (method.getName().equals("next")) {
+						return ++cursor[0] < rows.length;
+					}
+					if (method.getName().equals("findColumn")) {
+						return COLUMNS.indexOf((String) args[0]) + 1;
+					}
+					final int index = (args[0] instanceof String name) ? COLUMNS.indexOf(name) : (int) args[0] - 1;
+					final Object value = rows[cursor[0]][index];
+					return switch (method.getName()) {
+						case "getInt", "getString" -> value;
+						case "getTimestamp" -> Timestamp.from((Instant) value);
+						case "getObject" -> OffsetDateTime.ofInstant((Instant) value, ZoneOffset.UTC);
+						case "getArray" -> Proxy.newProxyInstance(Array.class.getClassLoader(), new Class<?>[] { Array.class },
+								(p, m, a) -> m.getName().equals("getArray") ? ((String[]) value).clone() : null);
+						default -> throw new UnsupportedOperationException(method.getName());
+					};
+				});
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(EntryRowMapperBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
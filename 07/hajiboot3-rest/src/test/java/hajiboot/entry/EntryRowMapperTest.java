@@ -0,0 +1,43 @@
+package hajiboot.entry;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntryRowMapperTest {
+	@Test
+	void mapRow() throws Exception {
+		final Instant created = Instant.parse("2023-02-10T07:00:00Z");
+		final Instant lastModified = Instant.parse("2023-02-10T08:00:00Z");
+		final ResultSet rs = EntryRowMapperBenchmark.resultSet(new Object[][] {
+				{ 1, "title 1", "content 1", new String[] { "a", "b" }, "user1", created, "user2", lastModified },
+				{ 2, "title 2", "", new String[] { "b", "b" }, "user1", created, "user2", lastModified } });
+		final TagPool tagPool = new TagPool(10);
+		final EntryRowMapper rowMapper = new EntryRowMapper(tagPool);
+		final List<Entry> entries = new ArrayList<>();
+		for (int i = 0; rs.next(); i++) {
+			entries.add(rowMapper.mapRow(rs, i));
+		}
+
+		assertThat(entries).containsExactly(
+				new Entry(1, "title 1", "content 1", Set.of(new Tag("a"), new Tag("b")),
+						new UpdateMeta("user1", created), new UpdateMeta("user2", lastModified)),
+				new Entry(2, "title 2", "", Set.of(new Tag("b")),
+						new UpdateMeta("user1", created), new UpdateMeta("user2", lastModified)));
+		assertThat(entries.get(1).tags().iterator().next()).isSameAs(tagPool.intern("b"));
+		assertThat(tagPool.size()).isEqualTo(2);
+	}
+
+	@Test
+	void tagPoolIsBounded() {
+		final TagPool tagPool = new TagPool(1);
+		assertThat(tagPool.intern("a")).isSameAs(tagPool.intern("a"));
+		assertThat(tagPool.intern("b")).isEqualTo(new Tag("b")).isNotSameAs(tagPool.intern("b"));
+	}
+}
@@ -0,0 +1,217 @@
+package hajiboot.entry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageAnchorIndexTest {
+	// newest first, as ordered by the offset queries
+	List<EntryKey> rows = IntStream.range(0, 25)
+			.mapToObj(i -> new EntryKey(Instant.ofEpochSecond(1000 - i), 100 - i))
+			.toList();
+
+	List<Integer> lookups = new ArrayList<>();
+
+	EntryKey keyAt(EntryKey from, long skip) {
+		final int start = (from == null) ? 0 : this.rows.indexOf(from) + 1;
+		final int index = Math.toIntExact(start + skip);
+		this.lookups.add(index);
+		return (index < this.rows.size()) ? this.rows.get(index) : null;
+	}
+
+	List<EntryKey> newer(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new EntryKey(Instant.ofEpochSecond(2000 + i), 200 + i))
+				.toList();
+	}
+
+	@Test
+	void seekBuildsAnchorsLazily() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		PageAnchorIndex.Anchor anchor = index.seek(23, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(20);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).containsExactly(19);
+		assertThat(index.size()).isEqualTo(1);
+
+		this.lookups.clear();
+		anchor = index.seek(15, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(10);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(9));
+		assertThat(this.lookups).containsExactly(9);
+		assertThat(index.size()).isEqualTo(2);
+
+		this.lookups.clear();
+		anchor = index.seek(28, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(20);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void seekFromNearestAnchor() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(15, this::keyAt);
+		this.lookups.clear();
+		PageAnchorIndex.Anchor anchor = index.seek(23, this::keyAt);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).containsExactly(19);
+	}
+
+	@Test
+	void seekPastLastRow() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		PageAnchorIndex.Anchor anchor = index.seek(1000, this::keyAt);
+		assertThat(anchor.offset()).isZero();
+		assertThat(anchor.key()).isNull();
+		assertThat(this.lookups).containsExactly(999);
+
+		index.seek(23, this::keyAt);
+		anchor = index.seek(1000, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(20);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void seekBelowStride() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		PageAnchorIndex.Anchor anchor = index.seek(5, this::keyAt);
+		assertThat(anchor.offset()).isZero();
+		assertThat(anchor.key()).isNull();
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void invalidate() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(23, this::keyAt);
+		index.invalidate();
+		assertThat(index.size()).isZero();
+		this.lookups.clear();
+		index.seek(23, this::keyAt);
+		assertThat(this.lookups).containsExactly(19);
+	}
+
+	@Test
+	void expire() throws Exception {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMillis(10));
+		index.seek(23, this::keyAt);
+		Thread.sleep(20);
+		this.lookups.clear();
+		index.seek(23, this::keyAt);
+		assertThat(this.lookups).containsExactly(19);
+	}
+
+	@Test
+	void maxAnchors() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 1, Duration.ofMinutes(1));
+		index.seek(23, this::keyAt);
+		index.seek(15, this::keyAt);
+		assertThat(index.size()).isEqualTo(1);
+		this.lookups.clear();
+		assertThat(index.seek(15, this::keyAt).key()).isEqualTo(this.rows.get(9));
+		assertThat(this.lookups).containsExactly(9);
+	}
+
+	@Test
+	void insertedShiftsAnchors() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(23, this::keyAt);
+		index.inserted(newer(10));
+		this.lookups.clear();
+		PageAnchorIndex.Anchor anchor = index.seek(30, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(30);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void insertedBehindAnchorsKeepsThem() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(15, this::keyAt);
+		index.inserted(List.of(new EntryKey(Instant.ofEpochSecond(1), 1)));
+		this.lookups.clear();
+		assertThat(index.seek(10, this::keyAt).key()).isEqualTo(this.rows.get(9));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void deletedShiftsAndDropsAnchors() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(15, this::keyAt);
+		index.seek(23, this::keyAt);
+		this.rows.subList(0, 10).forEach(index::deleted);
+		assertThat(index.size()).isEqualTo(1);
+		this.lookups.clear();
+		PageAnchorIndex.Anchor anchor = index.seek(10, this::keyAt);
+		assertThat(anchor.offset()).isEqualTo(10);
+		assertThat(anchor.key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void movedShiftsAnchorsBetween() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(15, this::keyAt);
+		index.seek(23, this::keyAt);
+		// rows[15] moves to the top, pushing rows[0..14] down by one and leaving rows[16..] in place
+		index.moved(this.rows.get(15), newer(1).get(0));
+		assertThat(index.size()).isEqualTo(2);
+		this.lookups.clear();
+		assertThat(index.seek(20, this::keyAt).key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void shiftsOnCommit() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(23, this::keyAt);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.inserted(newer(10));
+			// the writing transaction sees its rows before the anchors do
+			assertThat(index.seek(30, this::keyAt)).isEqualTo(new PageAnchorIndex.Anchor(0, null));
+			assertThat(index.size()).isEqualTo(1);
+			TransactionSynchronizationUtils.triggerAfterCommit();
+			TransactionSynchronizationUtils.invokeAfterCompletion(
+					TransactionSynchronizationManager.getSynchronizations(),
+					TransactionSynchronization.STATUS_COMMITTED);
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		this.lookups.clear();
+		assertThat(index.seek(30, this::keyAt).key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+
+	@Test
+	void rollbackKeepsAnchors() {
+		PageAnchorIndex index = new PageAnchorIndex(10, 100, Duration.ofMinutes(1));
+		index.seek(23, this::keyAt);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.inserted(newer(10));
+			TransactionSynchronizationUtils.invokeAfterCompletion(
+					TransactionSynchronizationManager.getSynchronizations(),
+					TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		this.lookups.clear();
+		assertThat(index.seek(20, this::keyAt).key()).isEqualTo(this.rows.get(19));
+		assertThat(this.lookups).isEmpty();
+	}
+}
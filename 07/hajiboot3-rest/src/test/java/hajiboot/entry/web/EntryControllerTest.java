@@ -3,13 +3,23 @@ package hajiboot.entry.web;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import com.jayway.jsonpath.JsonPath;
 import hajiboot.entry.Entry;
+import hajiboot.entry.EntryKey;
 import hajiboot.entry.EntryMapper;
 import hajiboot.entry.Tag;
 import hajiboot.entry.UpdateMeta;
+import hajiboot.pagination.CursorPage;
+import hajiboot.pagination.CursorPageRequest;
+import hajiboot.pagination.CursorPageRequest.Navigation;
+import hajiboot.pagination.OffsetPage;
+import hajiboot.pagination.OffsetPageRequest;
+import hajiboot.pagination.TotalCount;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -21,18 +31,23 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = EntryController.class)
@@ -97,6 +112,101 @@ class EntryControllerTest {
 				.andExpect(mvcResult -> assertThat(mvcResult.getResponse().getErrorMessage()).isEqualTo("The requested entry is not found. (entry Id = 1)"));
 	}
 
+	@Test
+	void getEntries_200_withoutTotal() throws Exception {
+		given(this.entryMapper.findAll(new OffsetPageRequest(0, 20, TotalCount.NONE)))
+				.willReturn(new OffsetPage<>(List.of(fixture(1)), 20, 0, -1, TotalCount.NONE, true));
+		this.mockMvc.perform(get("/entries").param("count", "none"))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(1))
+				.andExpect(jsonPath("$.totalElements").value(-1))
+				.andExpect(jsonPath("$.totalCount").value("NONE"))
+				.andExpect(jsonPath("$.hasNext").value(true));
+	}
+
+	@Test
+	void getEntries_400_unknownCount() throws Exception {
+		this.mockMvc.perform(get("/entries").param("count", "foo"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void getEntries_400_invalidPage() throws Exception {
+		this.mockMvc.perform(get("/entries").param("page", "-1"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+		this.mockMvc.perform(get("/entries").param("size", "0"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+		// page * size overflows int
+		this.mockMvc.perform(get("/entries").param("page", "2147483647").param("size", "200"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+		this.mockMvc.perform(get("/entries").param("page", "5001").param("size", "200"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void getEntriesByCursor_200() throws Exception {
+		given(this.entryMapper.findAllByKey(new CursorPageRequest<>(null, 2, Navigation.NEXT)))
+				.willReturn(new CursorPage<>(List.of(fixture(3), fixture(2)), 2, EntryKey::of, false, true));
+		MvcResult result = this.mockMvc.perform(get("/entries").param("cursor", "").param("size", "2"))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(2))
+				.andExpect(jsonPath("$.previous").doesNotExist())
+				.andReturn();
+		String next = JsonPath.read(result.getResponse().getContentAsString(), "$.next");
+
+		EntryKey key = new EntryKey(Instant.parse("2023-02-10T08:00:00Z"), 2);
+		given(this.entryMapper.findAllByKey(new CursorPageRequest<>(key, 2, Navigation.NEXT)))
+				.willReturn(new CursorPage<>(List.of(fixture(1)), 2, EntryKey::of, true, false));
+		this.mockMvc.perform(get("/entries").param("cursor", next).param("size", "2"))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].entryId").value(1))
+				.andExpect(jsonPath("$.previous").isString())
+				.andExpect(jsonPath("$.next").doesNotExist());
+	}
+
+	@Test
+	void getEntriesByCursor_400() throws Exception {
+		this.mockMvc.perform(get("/entries").param("cursor", "invalid"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void getEntriesByCursor_400_invalidSize() throws Exception {
+		this.mockMvc.perform(get("/entries").param("cursor", "").param("size", "0"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+		this.mockMvc.perform(get("/entries").param("cursor", "").param("size", "-1"))
+				.andDo(print())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportEntries_200() throws Exception {
+		given(this.entryMapper.streamAll(any())).willAnswer(invocation -> {
+			Consumer<Entry> action = invocation.getArgument(0);
+			action.accept(fixture(1));
+			action.accept(fixture(2));
+			return 2L;
+		});
+		MvcResult result = this.mockMvc.perform(get("/entries").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		this.mockMvc.perform(asyncDispatch(result))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+				.andExpect(content().string(matchesPattern("\\{\"entryId\":1,.+}\n\\{\"entryId\":2,.+}\n")));
+	}
+
 	@Test
 	void postEntries_201() throws Exception {
 		given(this.entryMapper.nextEntryId()).willReturn(10);
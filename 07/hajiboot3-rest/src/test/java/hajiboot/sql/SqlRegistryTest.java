@@ -0,0 +1,62 @@
+package hajiboot.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlRegistryTest {
+	SqlRegistry sqlRegistry = new SqlRegistry(new PathMatchingResourcePatternResolver(), "hajiboot/entry/EntryMapper");
+
+	@Test
+	void statement() {
+		SqlStatement statement = this.sqlRegistry.statement("hajiboot/entry/EntryMapper/findAllOffset.sql");
+		assertThat(statement.sql()).startsWith("/* hajiboot/entry/EntryMapper/findAllOffset.sql */ SELECT")
+				.endsWith("OFFSET ? LIMIT ?");
+		assertThat(statement.sql()).isSameAs(statement.sql());
+		// reading the text is not an execution
+		assertThat(statement.executions()).isZero();
+		assertThat(statement.execute(String::length)).isEqualTo(statement.sql().length());
+		statement.execute(2, sql -> null);
+		// failed statements are not counted
+		assertThatThrownBy(() -> statement.execute(sql -> {
+			throw new IllegalStateException("failed");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(this.sqlRegistry.executions()).containsEntry("hajiboot/entry/EntryMapper/findAllOffset.sql", 3L)
+				.containsEntry("hajiboot/entry/EntryMapper/findOne.sql", 0L);
+	}
+
+	@Test
+	void meters() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		this.sqlRegistry.bindTo(meterRegistry);
+		this.sqlRegistry.statement("hajiboot/entry/EntryMapper/findOne.sql").execute(sql -> null);
+		assertThat(meterRegistry.get("sql.statement.executions")
+				.tag("statement", "hajiboot/entry/EntryMapper/findOne.sql")
+				.functionCounter()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void unknownStatement() {
+		assertThatThrownBy(() -> this.sqlRegistry.statement("hajiboot/entry/EntryMapper/unknown.sql"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectFormatSpecifier() {
+		assertThatCode(() -> SqlRegistry.validate("ok.sql", "SELECT * FROM entry WHERE entry_id = ? LIMIT ?"))
+				.doesNotThrowAnyException();
+		// a % in a literal, quoted identifier or comment is not a format specifier
+		assertThatCode(() -> SqlRegistry.validate("ok.sql", """
+				-- titles like '%d%'
+				SELECT * FROM entry /* '%s' */ WHERE title LIKE '%d%' OR content = 'it''s %s' OR "%s" IS NULL
+				""")).doesNotThrowAnyException();
+		assertThatThrownBy(() -> SqlRegistry.validate("ng.sql", "SELECT * FROM entry LIMIT %d"))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,34 @@
+package hajiboot.util;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileLoaderTest {
+	PathMatchingResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
+
+	@Test
+	void loadAsString() {
+		assertThat(FileLoader.loadAsString("hajiboot/entry/EntryMapper/delete.sql")).startsWith("DELETE");
+		assertThat(FileLoader.loadSqlAsString("hajiboot/entry/EntryMapper/delete.sql"))
+				.startsWith("/* hajiboot/entry/EntryMapper/delete.sql */ DELETE");
+	}
+
+	@Test
+	void listFromClasspath() {
+		assertThat(FileLoader.list(this.resourcePatternResolver, "hajiboot/entry/EntryMapper", ".sql"))
+				.contains("hajiboot/entry/EntryMapper/findOne.sql", "hajiboot/entry/EntryMapper/delete.sql");
+	}
+
+	@Test
+	void embedded() {
+		FileLoader.embed("hajiboot/embedded/b.sql", "SELECT 2");
+		FileLoader.embed("hajiboot/embedded/a.sql", "SELECT 1");
+		FileLoader.embed("hajiboot/embedded/sub/c.sql", "SELECT 3");
+		assertThat(FileLoader.list(this.resourcePatternResolver, "hajiboot/embedded", ".sql"))
+				.containsExactly("hajiboot/embedded/a.sql", "hajiboot/embedded/b.sql");
+		assertThat(FileLoader.loadAsString("hajiboot/embedded/a.sql")).isEqualTo("SELECT 1");
+	}
+}